@@ -0,0 +1,213 @@
+package br.com.alura.forumapi.benchmark;
+
+import br.com.alura.forumapi.ForumApiApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Teste de carga HTTP comparando o servidor em platform threads e em virtual threads
+ * (spring.threads.virtual.enabled) nos endpoints GET /topics e POST /auth/login.
+ *
+ * Sobe a aplicação uma vez para cada modo (porta aleatória, H2 próprio), popula tópicos
+ * e dispara {@code load.concurrency} clientes simultâneos na listagem ({@code load.loginConcurrency}
+ * no login) por {@code load.durationSeconds}.
+ * Exemplo:
+ * ./mvnw -Pbenchmarks test-compile exec:exec@load-test -Dload.args="-Dload.concurrency=1000"
+ */
+public class HttpLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 400);
+    // O login é limitado por CPU (BCrypt): com a mesma concorrência da listagem a fila passaria da janela medida
+    private static final int LOGIN_CONCURRENCY = Integer.getInteger("load.loginConcurrency", 32);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmupSeconds", 5);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.durationSeconds", 15);
+    private static final int TOPICS = Integer.getInteger("load.topics", 500);
+    private static final String TOMCAT_MAX_THREADS = System.getProperty("load.tomcatMaxThreads", "200");
+
+    private static final String USERNAME = "carga";
+    private static final String PASSWORD = "senha123456";
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        HttpLoadTest loadTest = new HttpLoadTest();
+        List<String> report = new ArrayList<>();
+        for (boolean virtualThreads : new boolean[]{false, true}) {
+            report.addAll(loadTest.run(virtualThreads));
+        }
+
+        System.out.printf("%nduração=%ds, server.tomcat.threads.max=%s%n", DURATION_SECONDS, TOMCAT_MAX_THREADS);
+        System.out.printf("%-10s %-18s %11s %10s %10s %10s %10s %8s%n",
+                "modo", "cenário", "concorrência", "req/s", "p50 (ms)", "p99 (ms)", "max (ms)", "erros");
+        report.forEach(System.out::println);
+        System.exit(0);
+    }
+
+    private List<String> run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ForumApiApplication.class)
+                // Argumentos de linha de comando: têm precedência sobre o application.properties
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.tomcat.threads.max=" + TOMCAT_MAX_THREADS,
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port;
+            String token = seed(baseUrl);
+
+            HttpRequest listTopics = HttpRequest.newBuilder(URI.create(baseUrl + "/topics?page=0&size=10"))
+                    .header("Authorization", "Bearer " + token)
+                    .GET()
+                    .build();
+            HttpRequest login = json(baseUrl + "/auth/login",
+                    "{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\"}");
+
+            return List.of(
+                    measure(mode, "GET /topics", listTopics, CONCURRENCY),
+                    measure(mode, "POST /auth/login", login, LOGIN_CONCURRENCY));
+        } finally {
+            context.close();
+        }
+    }
+
+    private String seed(String baseUrl) throws Exception {
+        send(json(baseUrl + "/auth/register", "{\"username\":\"" + USERNAME + "\",\"email\":\"carga@load.local\","
+                + "\"password\":\"" + PASSWORD + "\"}"));
+        String loginBody = send(json(baseUrl + "/auth/login",
+                "{\"username\":\"" + USERNAME + "\",\"password\":\"" + PASSWORD + "\"}"));
+        Matcher matcher = TOKEN.matcher(loginBody);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Login falhou: " + loginBody);
+        }
+        String token = matcher.group(1);
+
+        for (int i = 0; i < TOPICS; i++) {
+            HttpRequest createTopic = HttpRequest.newBuilder(URI.create(baseUrl + "/topics"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Tópico de carga " + i + "\","
+                            + "\"message\":\"Mensagem do tópico de carga " + i + "\","
+                            + "\"courseName\":\"Curso " + (i % 10) + "\"}"))
+                    .build();
+            send(createTopic);
+        }
+        return token;
+    }
+
+    private String measure(String mode, String scenario, HttpRequest request, int concurrency) throws Exception {
+        runClients(request, concurrency, WARMUP_SECONDS);
+        Result result = runClients(request, concurrency, DURATION_SECONDS);
+
+        long[] latencies = result.latenciesMicros();
+        Arrays.sort(latencies);
+        return String.format("%-10s %-18s %11d %10.1f %10.2f %10.2f %10.2f %8d",
+                mode, scenario, concurrency,
+                latencies.length / (double) DURATION_SECONDS,
+                percentile(latencies, 0.50) / 1000.0,
+                percentile(latencies, 0.99) / 1000.0,
+                latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1000.0,
+                result.errors());
+    }
+
+    private Result runClients(HttpRequest request, int concurrency, int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<long[]>> clients = new ArrayList<>(concurrency);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.add(executor.submit(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        long end = System.nanoTime();
+                        if (end > deadline) {
+                            // Concluída após o fim da janela: não entra na vazão nem nas latências
+                            break;
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = (end - start) / 1000;
+                    }
+                    return Arrays.copyOf(samples, count);
+                }));
+            }
+        }
+
+        List<long[]> samples = new ArrayList<>(clients.size());
+        int total = 0;
+        for (Future<long[]> client : clients) {
+            long[] clientSamples = client.get();
+            samples.add(clientSamples);
+            total += clientSamples.length;
+        }
+
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (long[] clientSamples : samples) {
+            System.arraycopy(clientSamples, 0, latencies, offset, clientSamples.length);
+            offset += clientSamples.length;
+        }
+        return new Result(latencies, errors.get());
+    }
+
+    private String send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(request.uri() + " retornou " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private static HttpRequest json(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private record Result(long[] latenciesMicros, long errors) {
+    }
+}
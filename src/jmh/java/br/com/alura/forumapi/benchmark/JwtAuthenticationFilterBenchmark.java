@@ -0,0 +1,68 @@
+package br.com.alura.forumapi.benchmark;
+
+import br.com.alura.forumapi.auth.filter.JwtAuthenticationFilter;
+import br.com.alura.forumapi.auth.service.JwtService;
+import br.com.alura.forumapi.user.entity.User;
+import br.com.alura.forumapi.user.repository.UserRepository;
+import br.com.alura.forumapi.user.service.UserPrincipalCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho completo do JwtAuthenticationFilter para uma requisição com token válido
+ * (validação do token + resolução do principal + preenchimento do SecurityContext).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private JwtAuthenticationFilter filter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark");
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findByUsername("benchmark")).thenReturn(Optional.of(user));
+
+        JwtService jwtService = new JwtService(
+                JwtServiceBenchmark.SECRET, JwtServiceBenchmark.EXPIRATION_MS, 10_000, new SimpleMeterRegistry());
+        filter = new JwtAuthenticationFilter(jwtService, new UserPrincipalCache(userRepository, 300, 10_000));
+        authorizationHeader = "Bearer " + jwtService.generateToken("benchmark");
+    }
+
+    @Benchmark
+    public Authentication authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/topics");
+        request.addHeader("Authorization", authorizationHeader);
+
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
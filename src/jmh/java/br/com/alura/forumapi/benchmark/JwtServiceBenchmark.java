@@ -0,0 +1,73 @@
+package br.com.alura.forumapi.benchmark;
+
+import br.com.alura.forumapi.auth.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geração e validação de tokens JWT.
+ * "legacyTripleParse" reproduz o caminho antigo do filtro (três parses completos por requisição,
+ * reconstruindo a chave a cada vez) para comparação com o cache de claims.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    static final String SECRET = "minhachavesecretasuperseguraparajwtquedevetersomaiores256bits";
+    static final long EXPIRATION_MS = 86_400_000L;
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, EXPIRATION_MS, 10_000, new SimpleMeterRegistry());
+        token = jwtService.generateToken("benchmark");
+        jwtService.validateAndParse(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("benchmark");
+    }
+
+    @Benchmark
+    public Optional<Claims> validateAndParseCached() {
+        return jwtService.validateAndParse(token);
+    }
+
+    @Benchmark
+    public boolean legacyTripleParse() {
+        String username = legacyParse(token).getSubject();
+        return legacyParse(token).getSubject().equals(username)
+                && legacyParse(token).getExpiration().getTime() > System.currentTimeMillis();
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
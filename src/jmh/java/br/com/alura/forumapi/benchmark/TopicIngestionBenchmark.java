@@ -0,0 +1,95 @@
+package br.com.alura.forumapi.benchmark;
+
+import br.com.alura.forumapi.ForumApiApplication;
+import br.com.alura.forumapi.topic.entity.Topic;
+import br.com.alura.forumapi.topic.service.TopicService;
+import br.com.alura.forumapi.user.entity.User;
+import br.com.alura.forumapi.user.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Vazão de criação de tópicos (TopicService.createTopic) com vários produtores simultâneos:
+ * gravação síncrona, um INSERT por transação (ingestion=false), contra a fila de ingestão em lote
+ * (ingestion=true). O resultado é em tópicos gravados por segundo.
+ * Para mais produtores: -Djmh.args="-t 64"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class TopicIngestionBenchmark {
+
+    private static final int COURSES = 20;
+    private static final String AUTHOR = "autor-ingestao";
+
+    @Param({"false", "true"})
+    public boolean ingestion;
+
+    private ConfigurableApplicationContext context;
+    private TopicService topicService;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ForumApiApplication.class)
+                .web(WebApplicationType.NONE)
+                // Argumentos de linha de comando: têm precedência sobre o application.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:ingestion;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--topics.ingestion.enabled=" + ingestion,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--logging.level.root=WARN");
+        topicService = context.getBean(TopicService.class);
+
+        User author = new User();
+        author.setUsername(AUTHOR);
+        author.setEmail("ingestao@bench.local");
+        author.setPassword("-");
+        context.getBean(UserRepository.class).save(author);
+
+        // Cursos criados antes da medição: o benchmark mede só a gravação dos tópicos
+        for (int i = 0; i < COURSES; i++) {
+            createTopic(i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Topic createTopic() {
+        return createTopic(sequence.incrementAndGet());
+    }
+
+    private Topic createTopic(long i) {
+        return topicService.createTopic(
+                "Tópico de carga " + i,
+                "Mensagem do tópico de carga número " + i,
+                "Curso " + (i % COURSES),
+                AUTHOR);
+    }
+}
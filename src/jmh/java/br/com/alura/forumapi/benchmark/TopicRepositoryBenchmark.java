@@ -0,0 +1,153 @@
+package br.com.alura.forumapi.benchmark;
+
+import br.com.alura.forumapi.ForumApiApplication;
+import br.com.alura.forumapi.course.entity.Course;
+import br.com.alura.forumapi.course.repository.CourseRepository;
+import br.com.alura.forumapi.topic.entity.Topic;
+import br.com.alura.forumapi.topic.repository.TopicRepository;
+import br.com.alura.forumapi.user.entity.User;
+import br.com.alura.forumapi.user.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TopicRepository.findWithFilters (paginação por offset) e a listagem por keyset
+ * contra um H2 populado com {@code topicCount} tópicos.
+ * Para a base maior: -Djmh.args="-p topicCount=1000000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TopicRepositoryBenchmark {
+
+    private static final int COURSES = 20;
+    private static final int AUTHORS = 200;
+    private static final int BATCH_SIZE = 1000;
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"100000"})
+    public int topicCount;
+
+    private ConfigurableApplicationContext context;
+    private TopicRepository topicRepository;
+    private String courseName;
+    private Topic deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ForumApiApplication.class)
+                .web(WebApplicationType.NONE)
+                // Argumentos de linha de comando: têm precedência sobre o application.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--logging.level.root=WARN");
+        topicRepository = context.getBean(TopicRepository.class);
+        seed();
+
+        courseName = "Curso 0";
+        int deepPage = topicCount / PAGE_SIZE / 2;
+        deepCursor = topicRepository
+                .findAllByOrderByCreatedAtDesc(PageRequest.of(deepPage, PAGE_SIZE))
+                .getContent().get(PAGE_SIZE - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Topic> findWithFiltersFirstPage() {
+        return topicRepository.findWithFilters(null, null, firstPage());
+    }
+
+    @Benchmark
+    public Page<Topic> findWithFiltersDeepPage() {
+        return topicRepository.findWithFilters(null, null,
+                PageRequest.of(topicCount / PAGE_SIZE / 2, PAGE_SIZE, Sort.by("createdAt").descending()));
+    }
+
+    @Benchmark
+    public Page<Topic> findWithFiltersByCourse() {
+        return topicRepository.findWithFilters(courseName, null, firstPage());
+    }
+
+    @Benchmark
+    public Slice<Topic> findSliceAfterDeepCursor() {
+        return topicRepository.findSliceWithFiltersAfter(null, null, deepCursor.getCreatedAt(), deepCursor.getId(),
+                PageRequest.of(0, PAGE_SIZE));
+    }
+
+    private static PageRequest firstPage() {
+        return PageRequest.of(0, PAGE_SIZE, Sort.by("createdAt").descending());
+    }
+
+    private void seed() {
+        CourseRepository courseRepository = context.getBean(CourseRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        List<Long> courseIds = new ArrayList<>();
+        for (int i = 0; i < COURSES; i++) {
+            courseIds.add(courseRepository.save(new Course("Curso " + i, "Curso de benchmark " + i)).getId());
+        }
+
+        List<Long> authorIds = new ArrayList<>();
+        for (int i = 0; i < AUTHORS; i++) {
+            User author = new User();
+            author.setUsername("autor" + i);
+            author.setEmail("autor" + i + "@bench.local");
+            author.setPassword("-");
+            authorIds.add(userRepository.save(author).getId());
+        }
+
+        // Inserção em lote via JDBC, sem passar 10^5 entidades pelo contexto de persistência (id vem do DEFAULT da sequence)
+        LocalDateTime start = LocalDateTime.now().minusSeconds(topicCount);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < topicCount; i++) {
+            Timestamp createdAt = Timestamp.valueOf(start.plusSeconds(i));
+            batch.add(new Object[]{
+                    "Tópico de benchmark " + i,
+                    "Mensagem do tópico de benchmark número " + i,
+                    createdAt,
+                    createdAt,
+                    authorIds.get(i % AUTHORS),
+                    courseIds.get(i % COURSES)
+            });
+            if (batch.size() == BATCH_SIZE || i == topicCount - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO topics (title, message, created_at, updated_at, author_id, course_id) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
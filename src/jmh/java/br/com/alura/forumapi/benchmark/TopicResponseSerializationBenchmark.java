@@ -0,0 +1,134 @@
+package br.com.alura.forumapi.benchmark;
+
+import br.com.alura.forumapi.config.ApiResponse;
+import br.com.alura.forumapi.course.entity.Course;
+import br.com.alura.forumapi.topic.dto.TopicPageResponse;
+import br.com.alura.forumapi.topic.dto.TopicResponse;
+import br.com.alura.forumapi.topic.entity.Topic;
+import br.com.alura.forumapi.user.entity.User;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeamento Topic -> TopicResponse e serialização da página da listagem de tópicos.
+ *
+ * mapAndSerialize: envelope tipado (TopicPageResponse) e TopicResponseSerializer, como na aplicação.
+ * mapAndSerializeUntyped: o caminho anterior, com Map<String, Object> e BeanSerializer + @JsonFormat
+ * (reproduzido com um mix-in). Para comparar alocações por resposta: -Djmh.args="-prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TopicResponseSerializationBenchmark {
+
+    @Param({"10", "100"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper untypedObjectMapper;
+    private Page<Topic> page;
+    private List<Topic> topics;
+
+    @Setup
+    public void setUp() {
+        // Mesmos módulos que o Spring Boot registra (jsr310 para LocalDateTime)
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+        untypedObjectMapper = JsonMapper.builder().findAndAddModules()
+                .addMixIn(TopicResponse.class, BeanTopicResponse.class)
+                .build();
+
+        Course course = new Course("Spring Boot", "Curso de Spring Boot");
+        course.setId(1L);
+
+        topics = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            User author = new User();
+            author.setId((long) i);
+            author.setUsername("autor" + i);
+
+            Topic topic = new Topic("Dúvida sobre JPA " + i,
+                    "Como configurar o relacionamento entre entidades? Tópico número " + i, author, course);
+            topic.setId((long) i);
+            topic.setCreatedAt(LocalDateTime.now());
+            topic.setUpdatedAt(LocalDateTime.now());
+            topics.add(topic);
+        }
+        page = new PageImpl<>(topics, PageRequest.of(0, pageSize), 1000);
+    }
+
+    @Benchmark
+    public List<TopicResponse> mapToResponse() {
+        return toResponses();
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws Exception {
+        ApiResponse<TopicPageResponse> response = ApiResponse.success(
+                "Tópicos listados com sucesso", new TopicPageResponse(page));
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializeUntyped() throws Exception {
+        Map<String, Object> responseData = new HashMap<>();
+        responseData.put("topics", toResponses());
+        responseData.put("currentPage", 0);
+        responseData.put("totalItems", 1000L);
+        responseData.put("totalPages", 1000 / pageSize);
+        responseData.put("pageSize", pageSize);
+        responseData.put("isFirst", true);
+        responseData.put("isLast", false);
+
+        ApiResponse<Map<String, Object>> response = ApiResponse.success("Tópicos listados com sucesso", responseData);
+        return untypedObjectMapper.writeValueAsBytes(response);
+    }
+
+    private List<TopicResponse> toResponses() {
+        List<TopicResponse> responses = new ArrayList<>(topics.size());
+        for (Topic topic : topics) {
+            responses.add(new TopicResponse(topic));
+        }
+        return responses;
+    }
+
+    // Serialização por reflexão (getters) e @JsonFormat, como antes do TopicResponseSerializer
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private abstract static class BeanTopicResponse {
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        abstract LocalDateTime getCreatedAt();
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        abstract LocalDateTime getUpdatedAt();
+
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        abstract LocalDateTime getLastReplyAt();
+    }
+}
@@ -1,29 +1,31 @@
 package br.com.alura.forumapi.auth.filter;
 
 import br.com.alura.forumapi.auth.service.JwtService;
+import br.com.alura.forumapi.user.dto.UserPrincipal;
+import br.com.alura.forumapi.user.service.UserPrincipalCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final UserPrincipalCache userPrincipalCache;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserPrincipalCache userPrincipalCache) {
         this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
+        this.userPrincipalCache = userPrincipalCache;
     }
 
     @Override
@@ -41,17 +43,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
+
+        // Verifica assinatura e expiração uma única vez; token inválido segue sem autenticação
+        Optional<Claims> claims = jwtService.validateAndParse(jwt);
+        if (claims.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        username = claims.get().getSubject();
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            // Principal em cache: evita ir à tabela users a cada requisição
+            Optional<UserPrincipal> userDetails = userPrincipalCache.get(username);
 
-            if (jwtService.isTokenValid(jwt, userDetails.getUsername())) {
+            if (userDetails.isPresent()) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
-                                userDetails,
+                                userDetails.get(),
                                 null,
-                                userDetails.getAuthorities()
+                                userDetails.get().getAuthorities()
                         );
                 authToken.setDetails(
                         new WebAuthenticationDetailsSource().buildDetails(request)
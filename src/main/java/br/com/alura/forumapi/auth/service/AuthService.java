@@ -39,6 +39,9 @@ public class AuthService {
 
             return new AuthResponse(token, user.getUsername(), user.getEmail());
         } catch (AuthenticationException e) {
+            // RejectedExecutionException (pool de hash saturado) não é AuthenticationException: o
+            // DaoAuthenticationProvider chama o PasswordEncoder fora do try que embrulha as falhas da
+            // busca do usuário, então ela chega ao GlobalExceptionHandler (503) sem passar por aqui
             throw new IllegalArgumentException("Usuário ou senha inválidos");
         }
     }
@@ -1,29 +1,66 @@
 package br.com.alura.forumapi.auth.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    private final Long jwtExpirationInMs;
 
-    @Value("${jwt.expiration}")
-    private Long jwtExpirationInMs;
+    // Chave e parser são imutáveis e thread-safe: criados uma única vez
+    private final Key signingKey;
+    private final JwtParser jwtParser;
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Claims já verificados, indexados pelo hash do token e válidos até a expiração do token
+    private final Cache<String, Claims> verifiedClaims;
+
+    // Métricas: verificação completa (cache miss) por resultado e acertos do cache
+    private final Timer verifyValid;
+    private final Timer verifyInvalid;
+    private final Counter cacheHits;
+
+    public JwtService(@Value("${jwt.secret}") String secretKey,
+                      @Value("${jwt.expiration}") Long jwtExpirationInMs,
+                      @Value("${jwt.cache.max-size:10000}") long cacheMaxSize,
+                      MeterRegistry meterRegistry) {
+        this.jwtExpirationInMs = jwtExpirationInMs;
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+        this.verifyValid = verifyTimer(meterRegistry, "valid");
+        this.verifyInvalid = verifyTimer(meterRegistry, "invalid");
+        this.cacheHits = Counter.builder("jwt.cache.hits")
+                .description("Tokens JWT validados a partir do cache")
+                .register(meterRegistry);
     }
 
     public String generateToken(String username) {
@@ -31,13 +68,44 @@ public class JwtService {
                 .setSubject(username)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationInMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Verifica assinatura e expiração do token e retorna seus claims.
+     * Cada token é verificado uma única vez; as chamadas seguintes usam o cache.
+     * @param token token JWT
+     * @return claims do token, ou vazio se o token for inválido ou estiver expirado
+     */
+    public Optional<Claims> validateAndParse(String token) {
+        String cacheKey = hash(token);
+        Claims cached = verifiedClaims.getIfPresent(cacheKey);
+        if (cached != null) {
+            if (isExpired(cached)) {
+                verifiedClaims.invalidate(cacheKey);
+                return Optional.empty();
+            }
+            cacheHits.increment();
+            return Optional.of(cached);
+        }
+
+        long start = System.nanoTime();
+        try {
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            verifiedClaims.put(cacheKey, claims);
+            verifyValid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            verifyInvalid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.empty();
+        }
+    }
+
     public boolean isTokenValid(String token, String username) {
-        final String tokenUsername = extractUsername(token);
-        return (tokenUsername.equals(username) && !isTokenExpired(token));
+        return validateAndParse(token)
+                .map(claims -> username.equals(claims.getSubject()))
+                .orElse(false);
     }
 
     public String extractUsername(String token) {
@@ -49,19 +117,56 @@ public class JwtService {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = validateAndParse(token)
+                .orElseThrow(() -> new JwtException("Token inválido ou expirado"));
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("jwt.verify")
+                .description("Verificação de assinatura e expiração de tokens JWT")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.before(new Date());
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 não disponível", e);
+        }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Mantém cada entrada no cache apenas até a expiração do próprio token
+     */
+    private static final class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return Long.MAX_VALUE;
+            }
+            long remainingMs = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -1,6 +1,6 @@
 package br.com.alura.forumapi.config;
 
-import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import java.time.LocalDateTime;
 
@@ -10,7 +10,7 @@ public class ApiResponse<T> {
     private String message;
     private T data;
 
-    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @JsonSerialize(using = JsonDateTimeSerializer.class)
     private LocalDateTime timestamp;
 
     // Constructors
@@ -1,6 +1,6 @@
 package br.com.alura.forumapi.config;
 
-import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -12,7 +12,7 @@ public class ErrorResponse {
     private String message;
     private List<String> details;
 
-    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @JsonSerialize(using = JsonDateTimeSerializer.class)
     private LocalDateTime timestamp;
 
     // Constructors
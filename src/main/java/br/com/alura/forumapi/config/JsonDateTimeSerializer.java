@@ -0,0 +1,74 @@
+package br.com.alura.forumapi.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Serializa LocalDateTime no formato das respostas da API ("yyyy-MM-dd HH:mm:ss").
+ *
+ * Equivale a @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss"), mas escreve os dígitos direto em um char[]
+ * em vez de passar pelo DateTimeFormatter (que aloca um contexto e um StringBuilder por data).
+ * O formatter pré-compilado fica só para anos fora de 0000-9999.
+ */
+public class JsonDateTimeSerializer extends StdSerializer<LocalDateTime> {
+
+    public static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(PATTERN);
+    private static final int LENGTH = PATTERN.length();
+
+    public JsonDateTimeSerializer() {
+        super(LocalDateTime.class);
+    }
+
+    @Override
+    public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        write(value, generator);
+    }
+
+    /**
+     * Escreve a data (ou null) no gerador; usado também por serializadores de DTOs
+     * @param value data
+     * @param generator gerador JSON
+     * @throws IOException se a escrita falhar
+     */
+    public static void write(LocalDateTime value, JsonGenerator generator) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            generator.writeString(FORMATTER.format(value));
+            return;
+        }
+
+        char[] chars = new char[LENGTH];
+        digits(chars, 0, year, 4);
+        chars[4] = '-';
+        digits(chars, 5, value.getMonthValue(), 2);
+        chars[7] = '-';
+        digits(chars, 8, value.getDayOfMonth(), 2);
+        chars[10] = ' ';
+        digits(chars, 11, value.getHour(), 2);
+        chars[13] = ':';
+        digits(chars, 14, value.getMinute(), 2);
+        chars[16] = ':';
+        digits(chars, 17, value.getSecond(), 2);
+        generator.writeString(chars, 0, LENGTH);
+    }
+
+    private static void digits(char[] chars, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.alura.forumapi.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.data.domain.Page;
+
+/**
+ * Metadados de paginação das listagens (base dos envelopes tipados de cada recurso)
+ * Campos primitivos e com tipo fixo: o Jackson usa o serializador de bean já resolvido,
+ * em vez de descobrir o tipo de cada valor como faria com um Map<String, Object>.
+ */
+public abstract class PageResponse {
+
+    private final int currentPage;
+    private final long totalItems;
+    private final int totalPages;
+    private final int pageSize;
+    private final boolean first;
+    private final boolean last;
+
+    protected PageResponse(Page<?> page) {
+        this.currentPage = page.getNumber();
+        this.totalItems = page.getTotalElements();
+        this.totalPages = page.getTotalPages();
+        this.pageSize = page.getSize();
+        this.first = page.isFirst();
+        this.last = page.isLast();
+    }
+
+    public int getCurrentPage() {
+        return currentPage;
+    }
+
+    public long getTotalItems() {
+        return totalItems;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @JsonProperty("isFirst")
+    public boolean isFirst() {
+        return first;
+    }
+
+    @JsonProperty("isLast")
+    public boolean isLast() {
+        return last;
+    }
+}
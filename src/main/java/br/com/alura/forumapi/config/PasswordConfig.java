@@ -1,5 +1,7 @@
 package br.com.alura.forumapi.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -8,8 +10,19 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration
 public class PasswordConfig {
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    /**
+     * BCrypt executado em um pool limitado (ver {@link BoundedPasswordEncoder})
+     * @param strength custo do BCrypt; senhas com custo menor são atualizadas no próximo login
+     * @param threads hashes simultâneos (padrão: número de processadores)
+     * @param queueCapacity hashes aguardando antes de recusar com 503
+     * @return PasswordEncoder
+     */
+    @Bean(destroyMethod = "shutdown")
+    public PasswordEncoder passwordEncoder(@Value("${auth.password.bcrypt-strength:10}") int strength,
+                                           @Value("${auth.password.hash-threads:0}") int threads,
+                                           @Value("${auth.password.hash-queue-capacity:64}") int queueCapacity,
+                                           MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), poolSize, queueCapacity, meterRegistry);
     }
 }
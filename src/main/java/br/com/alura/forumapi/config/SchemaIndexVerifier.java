@@ -0,0 +1,231 @@
+package br.com.alura.forumapi.config;
+
+import br.com.alura.forumapi.course.repository.CourseRepository;
+import br.com.alura.forumapi.reply.repository.ReplyRepository;
+import br.com.alura.forumapi.topic.repository.TopicRepository;
+import br.com.alura.forumapi.user.repository.UserRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Confere na inicialização se cada consulta das entidades tem um índice que a atenda.
+ *
+ * Cada caminho de acesso abaixo declara as colunas que a consulta filtra/ordena; o schema
+ * (definido pelas migrações Flyway em db/migration) precisa ter um índice que comece por
+ * essas colunas. Se faltar algum, a aplicação não sobe: uma migração que remove ou altera um
+ * índice usado por uma consulta listada aparece no deploy e não como lentidão em produção.
+ *
+ * A lista é mantida à mão e confere colunas, não expressões (ex.: UPPER(name) precisa de uma
+ * coluna gerada indexada, como courses.name_upper). Para que uma consulta nova não fique de fora,
+ * todo método declarado nos repositórios de REPOSITORIES precisa aparecer em um caminho de acesso
+ * ou em FULL_SCANS (varredura aceita, com o motivo); senão a aplicação também não sobe.
+ */
+@Component
+public class SchemaIndexVerifier implements SmartInitializingSingleton {
+
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            TopicRepository.class, CourseRepository.class, ReplyRepository.class, UserRepository.class);
+
+    private static final List<AccessPath> ACCESS_PATHS = List.of(
+            new AccessPath("TopicRepository: listagem geral (offset e keyset)",
+                    List.of("TopicRepository.findAllByOrderByCreatedAtDesc", "TopicRepository.findAll",
+                            "TopicRepository.findWithFilters", "TopicRepository.findFirstSliceWithFilters",
+                            "TopicRepository.findSliceWithFiltersAfter",
+                            "TopicRepository.findByTitleOrMessageContainingIgnoreCase"),
+                    "topics", "created_at", "id"),
+            new AccessPath("TopicController: listagem com sortBy=updatedAt (TopicSort)", List.of(),
+                    "topics", "updated_at", "id"),
+            new AccessPath("TopicController: listagem com sortBy=title (TopicSort)", List.of(),
+                    "topics", "title", "id"),
+            new AccessPath("TopicRepository: listagem por curso (offset e keyset)",
+                    List.of("TopicRepository.findByCourse", "TopicRepository.findByCourseNameOrderByCreatedAtDesc",
+                            "TopicRepository.findByCourseNameWithPagination", "TopicRepository.findWithFilters",
+                            "TopicRepository.findFirstSliceWithFilters", "TopicRepository.findSliceWithFiltersAfter",
+                            "TopicRepository.countByCourse", "CourseRepository.recountTopics"),
+                    "topics", "course_id", "created_at", "id"),
+            new AccessPath("TopicRepository: tópicos do autor",
+                    List.of("TopicRepository.findByAuthorOrderByCreatedAtDesc",
+                            "TopicRepository.findByAuthorUsernameOrderByCreatedAtDesc"),
+                    "topics", "author_id", "created_at"),
+            new AccessPath("TopicRepository: tópicos mais vistos",
+                    List.of("TopicRepository.findAllByOrderByViewCountDescIdDesc"),
+                    "topics", "view_count", "id"),
+            new AccessPath("TopicRepository: tópico por ID (leituras e escritas condicionais)",
+                    List.of("TopicRepository.findWithAuthorAndCourseById", "TopicRepository.findByIdIn",
+                            "TopicRepository.findSearchDocumentsAfter", "TopicRepository.findByIdAndAuthorId",
+                            "TopicRepository.existsByIdAndAuthorUsername", "TopicRepository.findOwnershipById",
+                            "TopicRepository.findOwnershipForUpdateById", "TopicRepository.updateIfOwner",
+                            "TopicRepository.replyAdded", "TopicRepository.findVersionById",
+                            "TopicRepository.deleteByIdReturningCount", "TopicRepository.moveToCourse",
+                            "CourseRepository.topicActivity"),
+                    "topics", "id"),
+            new AccessPath("ReplyRepository: respostas do tópico por keyset (e thread)",
+                    List.of("ReplyRepository.findFirstSliceByTopic", "ReplyRepository.findSliceByTopicAfter"),
+                    "replies", "topic_id", "created_at", "id"),
+            new AccessPath("TopicRepository: filtro por nome exato do curso (t.course.name)",
+                    List.of("TopicRepository.findByCourseNameOrderByCreatedAtDesc",
+                            "TopicRepository.findByCourseNameWithPagination", "TopicRepository.findWithFilters",
+                            "TopicRepository.findFirstSliceWithFilters", "TopicRepository.findSliceWithFiltersAfter",
+                            "TopicRepository.countByCourse"),
+                    "courses", "name"),
+            new AccessPath("CourseRepository: curso por nome sem diferenciar maiúsculas",
+                    List.of("CourseRepository.findByNameIgnoreCase", "CourseRepository.existsByNameIgnoreCase"),
+                    "courses", "name_upper"),
+            new AccessPath("CourseRepository: cursos por atividade",
+                    List.of("CourseRepository.findAllByOrderByLastActivityAtDescIdDesc"),
+                    "courses", "last_activity_at", "id"),
+            new AccessPath("CourseRepository: contadores do curso por ID",
+                    List.of("CourseRepository.topicsAdded", "CourseRepository.topicRemoved",
+                            "CourseRepository.topicActivity", "CourseRepository.lockById",
+                            "CourseRepository.recountTopics"),
+                    "courses", "id"),
+            new AccessPath("UserRepository: usuário pelo username exato",
+                    List.of("UserRepository.findByUsername", "UserRepository.existsByUsername",
+                            "UserRepository.updatePassword"),
+                    "users", "username"),
+            new AccessPath("UserRepository: login e cadastro sem diferenciar maiúsculas",
+                    List.of("UserRepository.findAllByUsernameIgnoreCase", "UserRepository.existsByUsernameIgnoreCase"),
+                    "users", "username_lower"),
+            new AccessPath("UserRepository: usuário pelo email",
+                    List.of("UserRepository.findByEmail", "UserRepository.existsByEmail"),
+                    "users", "email")
+    );
+
+    // Consultas que percorrem a tabela inteira por definição
+    private static final Map<String, String> FULL_SCANS = Map.of(
+            "CourseRepository.countTopicsGroupByCourse", "reconciliação dos contadores de todos os cursos");
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+
+    public SchemaIndexVerifier(DataSource dataSource,
+                               @Value("${schema.index-check.enabled:true}") boolean enabled) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+
+        List<String> unlisted = unlistedRepositoryMethods();
+        if (!unlisted.isEmpty()) {
+            throw new IllegalStateException("Métodos de repositório sem caminho de acesso no SchemaIndexVerifier "
+                    + "(registre em ACCESS_PATHS ou FULL_SCANS):\n  " + String.join("\n  ", unlisted));
+        }
+
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Map<String, List<List<String>>> indexesByTable = new HashMap<>();
+            for (AccessPath path : ACCESS_PATHS) {
+                List<List<String>> indexes = indexesByTable.computeIfAbsent(path.table(),
+                        table -> readIndexes(metaData, table));
+                if (indexes.stream().noneMatch(path::isServedBy)) {
+                    missing.add(path.query() + " -> " + path.table() + " " + path.columns());
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Não foi possível ler os índices do banco", e);
+        }
+
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Consultas sem índice no schema (crie uma migração em db/migration):\n  "
+                    + String.join("\n  ", missing));
+        }
+    }
+
+    /**
+     * Métodos declarados nos repositórios que não aparecem em nenhum caminho de acesso (e nomes listados
+     * que não existem mais, para a lista não envelhecer)
+     * @return nomes no formato Repositorio.metodo
+     */
+    private static List<String> unlistedRepositoryMethods() {
+        Set<String> listed = new TreeSet<>(FULL_SCANS.keySet());
+        ACCESS_PATHS.forEach(path -> listed.addAll(path.methods()));
+
+        Set<String> declared = new TreeSet<>();
+        for (Class<?> repository : REPOSITORIES) {
+            for (Method method : repository.getDeclaredMethods()) {
+                if (!method.isDefault() && !method.isSynthetic() && !Modifier.isStatic(method.getModifiers())) {
+                    declared.add(repository.getSimpleName() + "." + method.getName());
+                }
+            }
+        }
+
+        List<String> unlisted = new ArrayList<>();
+        declared.stream().filter(name -> !listed.contains(name)).forEach(unlisted::add);
+        listed.stream().filter(name -> !declared.contains(name)).map(name -> name + " (não existe)").forEach(unlisted::add);
+        return unlisted;
+    }
+
+    /**
+     * Colunas de cada índice da tabela, na ordem do índice
+     * @param metaData metadados da conexão
+     * @param table tabela
+     * @return lista de índices (cada um com suas colunas em minúsculas)
+     */
+    private static List<List<String>> readIndexes(DatabaseMetaData metaData, String table) {
+        Map<String, TreeMap<Short, String>> columnsByIndex = new HashMap<>();
+        try (ResultSet rs = metaData.getIndexInfo(null, null, identifier(metaData, table), false, true)) {
+            while (rs.next()) {
+                String indexName = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (indexName == null || column == null) {
+                    continue;
+                }
+                columnsByIndex.computeIfAbsent(indexName, name -> new TreeMap<>())
+                        .put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Não foi possível ler os índices da tabela " + table, e);
+        }
+        return columnsByIndex.values().stream()
+                .map(columns -> List.copyOf(columns.values()))
+                .toList();
+    }
+
+    private static String identifier(DatabaseMetaData metaData, String name) throws SQLException {
+        if (metaData.storesUpperCaseIdentifiers()) {
+            return name.toUpperCase(Locale.ROOT);
+        }
+        if (metaData.storesLowerCaseIdentifiers()) {
+            return name.toLowerCase(Locale.ROOT);
+        }
+        return name;
+    }
+
+    /**
+     * Consulta e as colunas (filtro e ordenação) que um índice precisa ter como prefixo
+     */
+    private record AccessPath(String query, List<String> methods, String table, List<String> columns) {
+
+        AccessPath(String query, List<String> methods, String table, String... columns) {
+            this(query, methods, table, List.of(columns));
+        }
+
+        boolean isServedBy(List<String> indexColumns) {
+            return indexColumns.size() >= columns.size()
+                    && indexColumns.subList(0, columns.size()).equals(columns);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package br.com.alura.forumapi.config;
 
 import br.com.alura.forumapi.auth.filter.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,6 +14,7 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -21,11 +25,18 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
     private final PasswordEncoder passwordEncoder;
+    private final boolean rehashOnLogin;
 
-    public SecurityConfig(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder) {
+    public SecurityConfig(UserDetailsService userDetailsService,
+                          UserDetailsPasswordService userDetailsPasswordService,
+                          PasswordEncoder passwordEncoder,
+                          @Value("${auth.password.rehash-on-login:true}") boolean rehashOnLogin) {
         this.userDetailsService = userDetailsService;
+        this.userDetailsPasswordService = userDetailsPasswordService;
         this.passwordEncoder = passwordEncoder;
+        this.rehashOnLogin = rehashOnLogin;
     }
 
     @Bean
@@ -33,6 +44,8 @@ public class SecurityConfig {
         return http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(authorize -> authorize
+                        // Redespacho de respostas assíncronas (ex.: exportação em streaming): a requisição original já foi autorizada
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Libera endpoints do Swagger/OpenAPI
                         .requestMatchers(
                                 "/swagger-ui/**",
@@ -43,6 +56,8 @@ public class SecurityConfig {
                         // Libera H2 Console e endpoints públicos
                         .requestMatchers(PathRequest.toH2Console()).permitAll()
                         .requestMatchers("/", "/test", "/auth/**").permitAll()
+                        // Health check e scrape do Prometheus
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
                         .anyRequest().authenticated()
                 )
                 .headers(headers -> headers.frameOptions(frameOptions -> frameOptions.sameOrigin()))
@@ -57,6 +72,10 @@ public class SecurityConfig {
         DaoAuthenticationProvider daoAuthProvider = new DaoAuthenticationProvider();
         daoAuthProvider.setUserDetailsService(userDetailsService);
         daoAuthProvider.setPasswordEncoder(passwordEncoder);
+        if (rehashOnLogin) {
+            // Regrava o hash no login quando o custo do BCrypt em PasswordConfig aumentar
+            daoAuthProvider.setUserDetailsPasswordService(userDetailsPasswordService);
+        }
         return daoAuthProvider;
     }
 
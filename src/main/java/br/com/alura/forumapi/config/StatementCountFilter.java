@@ -0,0 +1,63 @@
+package br.com.alura.forumapi.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registra quantos comandos SQL cada requisição executou (métrica jdbc.statements.per.request),
+ * agrupado pelo padrão da rota, para identificar N+1 e consultas extras por endpoint.
+ * A contagem é feita no DataSource ({@link StatementCountingDataSource}): inclui Hibernate e JdbcTemplate.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    private record RouteKey(String method, String uri) {}
+
+    private final MeterRegistry meterRegistry;
+
+    // Um DistributionSummary por (método, rota), criado na primeira requisição: as demais só registram o
+    // valor, sem builder nem busca no registry. O mapa tem as mesmas entradas que o registry já teria
+    private final Map<RouteKey, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public StatementCountFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        StatementCountingDataSource.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = StatementCountingDataSource.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+            RouteKey key = new RouteKey(request.getMethod(), pattern != null ? pattern.toString() : "UNKNOWN");
+            summaries.computeIfAbsent(key, this::register).record(statements);
+        }
+    }
+
+    private DistributionSummary register(RouteKey key) {
+        return DistributionSummary.builder("jdbc.statements.per.request")
+                .description("Comandos SQL preparados por requisição (Hibernate e JdbcTemplate)")
+                .tag("method", key.method())
+                .tag("uri", key.uri())
+                .register(meterRegistry);
+    }
+}
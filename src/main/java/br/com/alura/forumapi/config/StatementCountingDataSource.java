@@ -0,0 +1,68 @@
+package br.com.alura.forumapi.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Conta os comandos SQL preparados na requisição corrente, no nível do DataSource: entram tanto os
+ * comandos do Hibernate quanto os do JdbcTemplate (lotes, consultas nativas).
+ * A contagem só acontece dentro de {@link #begin()}/{@link #end()} (abertos pelo
+ * {@link StatementCountFilter}); fora de uma requisição as conexões apenas repassam as chamadas.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    private static final ThreadLocal<int[]> COUNTER = new ThreadLocal<>();
+
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    /**
+     * Inicia a contagem para a thread atual
+     */
+    static void begin() {
+        COUNTER.set(new int[1]);
+    }
+
+    /**
+     * Encerra a contagem da thread atual
+     * @return número de comandos SQL preparados desde {@link #begin()}
+     */
+    static int end() {
+        int[] counter = COUNTER.get();
+        COUNTER.remove();
+        return counter != null ? counter[0] : 0;
+    }
+
+    // prepareStatement/prepareCall/createStatement: um comando por chamada (um lote JDBC conta uma vez)
+    private static Connection counting(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    int[] counter = COUNTER.get();
+                    if (counter != null
+                            && (method.getName().startsWith("prepare") || method.getName().equals("createStatement"))) {
+                        counter[0]++;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
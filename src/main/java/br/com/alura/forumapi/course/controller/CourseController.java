@@ -0,0 +1,49 @@
+package br.com.alura.forumapi.course.controller;
+
+import br.com.alura.forumapi.config.ApiResponse;
+import br.com.alura.forumapi.course.dto.CoursePageResponse;
+import br.com.alura.forumapi.course.entity.Course;
+import br.com.alura.forumapi.course.service.CourseService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/courses")
+public class CourseController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final CourseService courseService;
+
+    public CourseController(CourseService courseService) {
+        this.courseService = courseService;
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<CoursePageResponse>> listCourses(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        if (page < 0) {
+            throw new IllegalArgumentException("Número da página não pode ser negativo");
+        }
+
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE);
+        }
+
+        // Ordenados por atividade recente; contagem de tópicos lida da coluna topic_count
+        Page<Course> coursesPage = courseService.findAllByActivity(PageRequest.of(page, size));
+
+        ApiResponse<CoursePageResponse> response = ApiResponse.success(
+                "Cursos listados com sucesso",
+                new CoursePageResponse(coursesPage)
+        );
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.alura.forumapi.course.dto;
+
+import br.com.alura.forumapi.config.PageResponse;
+import br.com.alura.forumapi.course.entity.Course;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.springframework.data.domain.Page;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Página de cursos (GET /courses)
+ */
+@JsonPropertyOrder({"courses", "currentPage", "totalItems", "totalPages", "pageSize", "isFirst", "isLast"})
+public class CoursePageResponse extends PageResponse {
+
+    private final List<CourseResponse> courses;
+
+    public CoursePageResponse(Page<Course> page) {
+        super(page);
+        this.courses = new ArrayList<>(page.getNumberOfElements());
+        for (Course course : page.getContent()) {
+            courses.add(new CourseResponse(course));
+        }
+    }
+
+    public List<CourseResponse> getCourses() {
+        return courses;
+    }
+}
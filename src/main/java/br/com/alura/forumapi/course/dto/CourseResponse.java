@@ -0,0 +1,70 @@
+package br.com.alura.forumapi.course.dto;
+
+import br.com.alura.forumapi.course.entity.Course;
+import br.com.alura.forumapi.config.JsonDateTimeSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.LocalDateTime;
+
+public class CourseResponse {
+
+    private Long id;
+    private String name;
+    private String description;
+    private long topicCount;
+
+    @JsonSerialize(using = JsonDateTimeSerializer.class)
+    private LocalDateTime lastActivityAt;
+
+    // Constructors
+    public CourseResponse() {}
+
+    public CourseResponse(Course course) {
+        this.id = course.getId();
+        this.name = course.getName();
+        this.description = course.getDescription();
+        this.topicCount = course.getTopicCount();
+        this.lastActivityAt = course.getLastActivityAt();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public long getTopicCount() {
+        return topicCount;
+    }
+
+    public void setTopicCount(long topicCount) {
+        this.topicCount = topicCount;
+    }
+
+    public LocalDateTime getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public void setLastActivityAt(LocalDateTime lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+}
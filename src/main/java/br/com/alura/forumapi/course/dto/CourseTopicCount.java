@@ -0,0 +1,43 @@
+package br.com.alura.forumapi.course.dto;
+
+/**
+ * Quantidade de tópicos de um curso (resultado de consulta agregada): o total contado na tabela
+ * de tópicos e o valor desnormalizado em courses.topic_count
+ */
+public class CourseTopicCount {
+
+    private final Long courseId;
+    private final String courseName;
+    private final long storedCount;
+    private final long topicCount;
+
+    public CourseTopicCount(Long courseId, String courseName, long storedCount, long topicCount) {
+        this.courseId = courseId;
+        this.courseName = courseName;
+        this.storedCount = storedCount;
+        this.topicCount = topicCount;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public long getStoredCount() {
+        return storedCount;
+    }
+
+    public long getTopicCount() {
+        return topicCount;
+    }
+
+    /**
+     * @return true se courses.topic_count diverge da contagem real
+     */
+    public boolean isDrifted() {
+        return storedCount != topicCount;
+    }
+}
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "courses")
 @Data
@@ -22,6 +24,20 @@ public class Course {
     @Column(name = "description")
     private String description;
 
+    // Contadores desnormalizados, mantidos na mesma transação das escritas de tópicos
+    @Column(name = "topic_count", nullable = false)
+    private long topicCount;
+
+    @Column(name = "last_activity_at")
+    private LocalDateTime lastActivityAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (lastActivityAt == null) {
+            lastActivityAt = LocalDateTime.now();
+        }
+    }
+
     public Course(String name, String description) {
         this.name = name;
         this.description = description;
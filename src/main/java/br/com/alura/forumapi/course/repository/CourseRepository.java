@@ -1,9 +1,20 @@
 package br.com.alura.forumapi.course.repository;
 
+import br.com.alura.forumapi.course.dto.CourseTopicCount;
 import br.com.alura.forumapi.course.entity.Course;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,15 +22,97 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
 
     /**
      * Busca um curso pelo nome (case-insensitive)
+     * Compara com a coluna gerada name_upper (índice idx_courses_name_upper), não com UPPER(name)
      * @param name nome do curso
      * @return Optional<Course>
      */
-    Optional<Course> findByNameIgnoreCase(String name);
+    @Query(value = "SELECT c.* FROM courses c WHERE c.name_upper = UPPER(:name)", nativeQuery = true)
+    Optional<Course> findByNameIgnoreCase(@Param("name") String name);
 
     /**
-     * Verifica se existe
+     * Verifica se existe (case-insensitive, pelo índice idx_courses_name_upper)
      * @param name nome do curso
      * @return true se existir, false caso contrário
      */
-    boolean existsByNameIgnoreCase(String name);
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM courses c WHERE c.name_upper = UPPER(:name))", nativeQuery = true)
+    boolean existsByNameIgnoreCase(@Param("name") String name);
+
+    /**
+     * Lista os cursos do mais para o menos ativo (usa o índice idx_courses_last_activity)
+     * @param pageable configuração de paginação
+     * @return Page<Course>
+     */
+    Page<Course> findAllByOrderByLastActivityAtDescIdDesc(Pageable pageable);
+
+    /**
+     * Registra tópicos novos (ou movidos para o curso): soma ao contador e atualiza a última atividade
+     * @param courseId ID do curso
+     * @param count quantidade de tópicos
+     * @param activityAt data da atividade mais recente
+     * @return número de linhas alteradas
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Course c SET c.topicCount = c.topicCount + :count, " +
+            "c.lastActivityAt = CASE WHEN c.lastActivityAt IS NULL OR c.lastActivityAt < :activityAt " +
+            "THEN :activityAt ELSE c.lastActivityAt END " +
+            "WHERE c.id = :courseId")
+    int topicsAdded(@Param("courseId") Long courseId,
+                    @Param("count") long count,
+                    @Param("activityAt") LocalDateTime activityAt);
+
+    /**
+     * Registra a remoção (ou saída) de um tópico do curso
+     * @param courseId ID do curso
+     * @return número de linhas alteradas
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Course c SET c.topicCount = c.topicCount - 1 WHERE c.id = :courseId")
+    int topicRemoved(@Param("courseId") Long courseId);
+
+    /**
+     * Atualiza a última atividade do curso de um tópico (ex.: tópico editado)
+     * @param topicId ID do tópico
+     * @param activityAt data da atividade
+     * @return número de linhas alteradas
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Course c SET " +
+            "c.lastActivityAt = CASE WHEN c.lastActivityAt IS NULL OR c.lastActivityAt < :activityAt " +
+            "THEN :activityAt ELSE c.lastActivityAt END " +
+            "WHERE c.id IN (SELECT t.course.id FROM Topic t WHERE t.id = :topicId)")
+    int topicActivity(@Param("topicId") Long topicId, @Param("activityAt") LocalDateTime activityAt);
+
+    /**
+     * Conta os tópicos de cada curso (COUNT agrupado, sem carregar entidades), junto com o valor
+     * desnormalizado de topic_count para detectar divergências
+     * @return List<CourseTopicCount> (inclui cursos sem tópicos)
+     */
+    @Query("SELECT new br.com.alura.forumapi.course.dto.CourseTopicCount(c.id, c.name, c.topicCount, COUNT(t)) " +
+            "FROM Course c LEFT JOIN Topic t ON t.course = c GROUP BY c.id, c.name, c.topicCount")
+    List<CourseTopicCount> countTopicsGroupByCourse();
+
+    /**
+     * Trava a linha do curso até o fim da transação (SELECT ... FOR UPDATE)
+     * As escritas de tópicos atualizam o contador do curso na mesma transação, então esperam este lock
+     * @param id ID do curso
+     * @return Optional<Course>
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Course c WHERE c.id = :id")
+    Optional<Course> lockById(@Param("id") Long id);
+
+    /**
+     * Regrava topic_count com a contagem real dos tópicos do curso
+     * Deve ser chamado com a linha do curso travada (lockById)
+     * @param courseId ID do curso
+     * @return número de linhas alteradas
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Course c SET c.topicCount = (SELECT COUNT(t) FROM Topic t WHERE t.course.id = :courseId) " +
+            "WHERE c.id = :courseId")
+    int recountTopics(@Param("courseId") Long courseId);
 }
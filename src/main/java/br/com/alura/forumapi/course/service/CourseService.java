@@ -2,17 +2,43 @@ package br.com.alura.forumapi.course.service;
 
 import br.com.alura.forumapi.course.entity.Course;
 import br.com.alura.forumapi.course.repository.CourseRepository;
-import org.springframework.beans.factory.annotation.Autowired;
+import br.com.alura.forumapi.stats.service.StatsService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class CourseService {
 
-    @Autowired
-    private CourseRepository courseRepository;
+    private final CourseRepository courseRepository;
+    private final StatsService statsService;
+    private final TransactionTemplate newTransaction;
+
+    // Cache de cursos por nome (case-insensitive). Cursos não são removidos nem renomeados,
+    // então uma entrada nunca fica inválida; o conjunto de cursos é pequeno e muito acessado.
+    // Os contadores (topicCount, lastActivityAt) das entradas em cache não são atualizados:
+    // leituras desses campos devem ir ao banco.
+    private final Map<String, Course> coursesByName = new ConcurrentHashMap<>();
+
+    public CourseService(CourseRepository courseRepository,
+                         StatsService statsService,
+                         PlatformTransactionManager transactionManager) {
+        this.courseRepository = courseRepository;
+        this.statsService = statsService;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
 
     /**
      * Lista todos os cursos
@@ -37,24 +63,35 @@ public class CourseService {
      * @return Optional<Course>
      */
     public Optional<Course> findByName(String name) {
-        return courseRepository.findByNameIgnoreCase(name);
+        String courseName = normalize(name);
+        Course cached = coursesByName.get(cacheKey(courseName));
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<Course> course = courseRepository.findByNameIgnoreCase(courseName);
+        course.ifPresent(found -> coursesByName.putIfAbsent(cacheKey(courseName), found));
+        return course;
     }
 
     /**
      * Cria um novo curso ou retorna existente
-     * @param name nome do curso
+     * No caso comum (curso já conhecido) não acessa o banco
+     * @param name nome do curso (gravado sem espaços nas pontas)
      * @param description descrição do curso
      * @return Course
      */
     public Course createOrGetCourse(String name, String description) {
-        Optional<Course> existingCourse = courseRepository.findByNameIgnoreCase(name);
-
-        if (existingCourse.isPresent()) {
-            return existingCourse.get();
+        String courseName = normalize(name);
+        String key = cacheKey(courseName);
+        Course cached = coursesByName.get(key);
+        if (cached != null) {
+            return cached;
         }
 
-        Course newCourse = new Course(name, description);
-        return courseRepository.save(newCourse);
+        Course course = findOrInsert(courseName, description);
+        Course previous = coursesByName.putIfAbsent(key, course);
+        return previous != null ? previous : course;
     }
 
     /**
@@ -63,6 +100,94 @@ public class CourseService {
      * @return true se existir, false caso contrário
      */
     public boolean existsByName(String name) {
-        return courseRepository.existsByNameIgnoreCase(name);
+        String courseName = normalize(name);
+        return coursesByName.containsKey(cacheKey(courseName)) || courseRepository.existsByNameIgnoreCase(courseName);
+    }
+
+    /**
+     * Lista os cursos ordenados por atividade (mais recente primeiro)
+     * @param pageable configuração de paginação
+     * @return Page<Course>
+     */
+    public Page<Course> findAllByActivity(Pageable pageable) {
+        return courseRepository.findAllByOrderByLastActivityAtDescIdDesc(pageable);
+    }
+
+    /**
+     * Quantidade de tópicos de um curso (coluna desnormalizada, sem COUNT)
+     * @param name nome do curso
+     * @return número de tópicos (0 se o curso não existir)
+     */
+    public long countTopics(String name) {
+        return courseRepository.findByNameIgnoreCase(normalize(name))
+                .map(Course::getTopicCount)
+                .orElse(0L);
+    }
+
+    /**
+     * Registra um tópico criado no curso (ou movido para ele)
+     * Deve ser chamado na mesma transação que grava o tópico
+     * @param course curso
+     * @param activityAt data da atividade
+     */
+    public void topicAdded(Course course, LocalDateTime activityAt) {
+        topicsAdded(course, 1, activityAt);
+    }
+
+    /**
+     * Registra vários tópicos criados no mesmo curso (ex.: lote da ingestão), com um único UPDATE
+     * Deve ser chamado na mesma transação que grava os tópicos
+     * @param course curso
+     * @param count quantidade de tópicos
+     * @param activityAt data da atividade mais recente
+     */
+    public void topicsAdded(Course course, long count, LocalDateTime activityAt) {
+        courseRepository.topicsAdded(course.getId(), count, activityAt);
+    }
+
+    /**
+     * Registra um tópico removido do curso (ou movido para outro)
+     * Deve ser chamado na mesma transação que remove o tópico
+     * @param name nome do curso
+     */
+    public void topicRemoved(String name) {
+        findByName(name).ifPresent(course -> courseRepository.topicRemoved(course.getId()));
+    }
+
+    /**
+     * Registra a edição de um tópico como atividade do seu curso
+     * @param topicId ID do tópico
+     * @param activityAt data da atividade
+     */
+    public void topicActivity(Long topicId, LocalDateTime activityAt) {
+        courseRepository.topicActivity(topicId, activityAt);
+    }
+
+    // name já normalizado: a busca e o INSERT usam o mesmo valor da chave do cache
+    private Course findOrInsert(String name, String description) {
+        Optional<Course> existingCourse = courseRepository.findByNameIgnoreCase(name);
+        if (existingCourse.isPresent()) {
+            return existingCourse.get();
+        }
+
+        try {
+            // Transação própria: uma violação de unicidade não invalida a transação de quem chamou
+            Course newCourse = newTransaction.execute(status -> courseRepository.save(new Course(name, description)));
+            statsService.courseCreated();
+            return newCourse;
+        } catch (DataIntegrityViolationException e) {
+            // Outra requisição criou o mesmo curso ao mesmo tempo: usa o curso já gravado
+            return courseRepository.findByNameIgnoreCase(name).orElseThrow(() -> e);
+        }
+    }
+
+    // Nome como é buscado e gravado: sem espaços nas pontas
+    private static String normalize(String name) {
+        return name.trim();
+    }
+
+    // Chave do cache para um nome já normalizado
+    private static String cacheKey(String normalizedName) {
+        return normalizedName.toLowerCase(Locale.ROOT);
     }
 }
@@ -0,0 +1,72 @@
+package br.com.alura.forumapi.reply.controller;
+
+import br.com.alura.forumapi.config.ApiResponse;
+import br.com.alura.forumapi.reply.dto.ReplyRequest;
+import br.com.alura.forumapi.reply.dto.ReplyResponse;
+import br.com.alura.forumapi.reply.dto.ReplySliceResponse;
+import br.com.alura.forumapi.reply.dto.TopicThreadResponse;
+import br.com.alura.forumapi.reply.entity.Reply;
+import br.com.alura.forumapi.reply.service.ReplyService;
+import br.com.alura.forumapi.topic.dto.TopicCursor;
+import br.com.alura.forumapi.topic.service.TopicService;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/topics/{topicId}")
+public class ReplyController {
+
+    private final ReplyService replyService;
+
+    public ReplyController(ReplyService replyService) {
+        this.replyService = replyService;
+    }
+
+    @GetMapping("/replies")
+    public ResponseEntity<ApiResponse<ReplySliceResponse>> listReplies(
+            @PathVariable Long topicId,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String after) {
+
+        Pageable pageable = TopicService.boundedPageRequest(0, size);
+
+        TopicCursor afterCursor = (after == null || after.isBlank()) ? null : TopicCursor.decode(after);
+        Slice<Reply> replies = replyService.getReplies(topicId, afterCursor, pageable);
+
+        ApiResponse<ReplySliceResponse> response = ApiResponse.success(
+                "Respostas encontradas",
+                new ReplySliceResponse(topicId, replies)
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/replies")
+    public ResponseEntity<ApiResponse<ReplyResponse>> createReply(
+            @PathVariable Long topicId,
+            @RequestBody @Valid ReplyRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+
+        Reply reply = replyService.createReply(topicId, request.getMessage(), userDetails.getUsername());
+
+        ApiResponse<ReplyResponse> response = ApiResponse.success(
+                "Resposta criada com sucesso",
+                new ReplyResponse(reply, topicId)
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/thread")
+    public ResponseEntity<ApiResponse<TopicThreadResponse>> getThread(
+            @PathVariable Long topicId,
+            @RequestParam(defaultValue = "" + ReplyService.DEFAULT_THREAD_REPLIES) int replies) {
+
+        return replyService.getThread(topicId, replies)
+                .map(thread -> ResponseEntity.ok(ApiResponse.success("Tópico encontrado", thread)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
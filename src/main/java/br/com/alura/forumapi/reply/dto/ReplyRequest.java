@@ -0,0 +1,27 @@
+package br.com.alura.forumapi.reply.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public class ReplyRequest {
+
+    @NotBlank(message = "Mensagem não pode estar vazia")
+    @Size(min = 2, max = 2000, message = "Mensagem deve ter entre 2 e 2000 caracteres")
+    private String message;
+
+    // Constructors
+    public ReplyRequest() {}
+
+    public ReplyRequest(String message) {
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
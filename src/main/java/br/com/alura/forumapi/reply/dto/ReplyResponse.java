@@ -0,0 +1,74 @@
+package br.com.alura.forumapi.reply.dto;
+
+import br.com.alura.forumapi.config.JsonDateTimeSerializer;
+import br.com.alura.forumapi.reply.entity.Reply;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.LocalDateTime;
+
+public class ReplyResponse {
+
+    private Long id;
+    private Long topicId;
+    private String message;
+    private String authorUsername;
+
+    @JsonSerialize(using = JsonDateTimeSerializer.class)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public ReplyResponse() {}
+
+    public ReplyResponse(Reply reply, Long topicId) {
+        this(reply.getId(), topicId, reply.getMessage(), reply.getAuthor().getUsername(), reply.getCreatedAt());
+    }
+
+    public ReplyResponse(Long id, Long topicId, String message, String authorUsername, LocalDateTime createdAt) {
+        this.id = id;
+        this.topicId = topicId;
+        this.message = message;
+        this.authorUsername = authorUsername;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTopicId() {
+        return topicId;
+    }
+
+    public void setTopicId(Long topicId) {
+        this.topicId = topicId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getAuthorUsername() {
+        return authorUsername;
+    }
+
+    public void setAuthorUsername(String authorUsername) {
+        this.authorUsername = authorUsername;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
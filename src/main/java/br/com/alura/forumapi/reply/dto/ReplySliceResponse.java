@@ -0,0 +1,53 @@
+package br.com.alura.forumapi.reply.dto;
+
+import br.com.alura.forumapi.reply.entity.Reply;
+import br.com.alura.forumapi.topic.dto.TopicCursor;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.springframework.data.domain.Slice;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Página de respostas de um tópico (GET /topics/{topicId}/replies), em ordem cronológica
+ */
+@JsonPropertyOrder({"replies", "pageSize", "hasNext", "nextCursor"})
+public class ReplySliceResponse {
+
+    private final List<ReplyResponse> replies;
+    private final int pageSize;
+    private final boolean hasNext;
+    private final String nextCursor;
+
+    public ReplySliceResponse(Long topicId, Slice<Reply> slice) {
+        List<Reply> content = slice.getContent();
+        this.replies = new ArrayList<>(content.size());
+        for (Reply reply : content) {
+            replies.add(new ReplyResponse(reply, topicId));
+        }
+        this.pageSize = slice.getSize();
+        this.hasNext = slice.hasNext();
+
+        // Mesmo formato de cursor dos tópicos: (createdAt, id) da última resposta desta página
+        this.nextCursor = slice.hasNext() && !content.isEmpty()
+                ? new TopicCursor(content.get(content.size() - 1).getCreatedAt(),
+                        content.get(content.size() - 1).getId()).encode()
+                : null;
+    }
+
+    public List<ReplyResponse> getReplies() {
+        return replies;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
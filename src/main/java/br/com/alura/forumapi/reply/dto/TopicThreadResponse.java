@@ -0,0 +1,40 @@
+package br.com.alura.forumapi.reply.dto;
+
+import br.com.alura.forumapi.topic.dto.TopicResponse;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.List;
+
+/**
+ * Tópico com as primeiras respostas (GET /topics/{topicId}/thread). O "nextCursor" continua
+ * a leitura em GET /topics/{topicId}/replies?after=...
+ */
+@JsonPropertyOrder({"topic", "replies", "hasMoreReplies", "nextCursor"})
+public class TopicThreadResponse {
+
+    private final TopicResponse topic;
+    private final List<ReplyResponse> replies;
+    private final String nextCursor;
+
+    public TopicThreadResponse(TopicResponse topic, List<ReplyResponse> replies, String nextCursor) {
+        this.topic = topic;
+        this.replies = replies;
+        this.nextCursor = nextCursor;
+    }
+
+    public TopicResponse getTopic() {
+        return topic;
+    }
+
+    public List<ReplyResponse> getReplies() {
+        return replies;
+    }
+
+    public boolean isHasMoreReplies() {
+        return nextCursor != null;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
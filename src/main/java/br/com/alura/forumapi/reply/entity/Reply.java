@@ -0,0 +1,51 @@
+package br.com.alura.forumapi.reply.entity;
+
+import br.com.alura.forumapi.topic.entity.Topic;
+import br.com.alura.forumapi.user.entity.User;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "replies")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Reply {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "replies_id_seq")
+    @SequenceGenerator(name = "replies_id_seq", sequenceName = "replies_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "message", nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "topic_id", nullable = false)
+    private Topic topic;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "author_id", nullable = false)
+    private User author;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = Topic.now();
+        }
+    }
+
+    public Reply(String message, Topic topic, User author, LocalDateTime createdAt) {
+        this.message = message;
+        this.topic = topic;
+        this.author = author;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.alura.forumapi.reply.repository;
+
+import br.com.alura.forumapi.reply.entity.Reply;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ReplyRepository extends JpaRepository<Reply, Long> {
+
+    /**
+     * Primeira página das respostas de um tópico, em ordem cronológica (sem COUNT)
+     * @param topicId ID do tópico
+     * @param pageable tamanho da página
+     * @return Slice<Reply>
+     */
+    @EntityGraph(attributePaths = {"author"})
+    @Query("SELECT r FROM Reply r WHERE r.topic.id = :topicId ORDER BY r.createdAt ASC, r.id ASC")
+    Slice<Reply> findFirstSliceByTopic(@Param("topicId") Long topicId, Pageable pageable);
+
+    /**
+     * Respostas seguintes ao cursor (keyset em createdAt, id): o custo não cresce com a profundidade
+     * @param topicId ID do tópico
+     * @param createdAt data da última resposta da página anterior
+     * @param id ID da última resposta da página anterior
+     * @param pageable tamanho da página
+     * @return Slice<Reply>
+     */
+    @EntityGraph(attributePaths = {"author"})
+    @Query("SELECT r FROM Reply r WHERE r.topic.id = :topicId " +
+            "AND (r.createdAt > :createdAt OR (r.createdAt = :createdAt AND r.id > :id)) " +
+            "ORDER BY r.createdAt ASC, r.id ASC")
+    Slice<Reply> findSliceByTopicAfter(@Param("topicId") Long topicId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+}
@@ -0,0 +1,182 @@
+package br.com.alura.forumapi.reply.service;
+
+import br.com.alura.forumapi.reply.dto.ReplyResponse;
+import br.com.alura.forumapi.reply.dto.TopicThreadResponse;
+import br.com.alura.forumapi.reply.entity.Reply;
+import br.com.alura.forumapi.reply.repository.ReplyRepository;
+import br.com.alura.forumapi.topic.dto.TopicCursor;
+import br.com.alura.forumapi.topic.dto.TopicOwnership;
+import br.com.alura.forumapi.topic.dto.TopicResponse;
+import br.com.alura.forumapi.topic.repository.TopicRepository;
+import br.com.alura.forumapi.topic.entity.Topic;
+import br.com.alura.forumapi.topic.service.TopicService;
+import br.com.alura.forumapi.topic.service.TopicTrendingIndex;
+import br.com.alura.forumapi.topic.service.TopicVersionRegistry;
+import br.com.alura.forumapi.user.entity.User;
+import br.com.alura.forumapi.user.service.UserService;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Respostas dos tópicos.
+ *
+ * O total de respostas e a data da última ficam desnormalizados em topics (reply_count, last_reply_at):
+ * o INSERT da resposta e o UPDATE atômico do contador rodam na mesma transação, e as listagens de
+ * tópicos exibem os dois campos sem COUNT(*) nem JOIN com replies.
+ */
+@Service
+public class ReplyService {
+
+    /**
+     * Quantidade padrão de respostas na thread (GET /topics/{topicId}/thread)
+     */
+    public static final int DEFAULT_THREAD_REPLIES = 10;
+
+    // Tópico + primeiras N respostas em uma única consulta: a subconsulta limita as respostas pelo
+    // índice (topic_id, created_at, id) e o LEFT JOIN mantém o tópico quando ainda não há respostas
+    private static final String THREAD_SQL = "SELECT t.id, t.title, t.message, t.created_at, t.updated_at, " +
+            "t.reply_count, t.last_reply_at, tu.username, c.name, " +
+            "r.id, r.message, r.created_at, ru.username " +
+            "FROM topics t " +
+            "JOIN users tu ON tu.id = t.author_id " +
+            "JOIN courses c ON c.id = t.course_id " +
+            "LEFT JOIN (SELECT id, message, created_at, author_id, topic_id FROM replies " +
+            "WHERE topic_id = ? ORDER BY created_at, id FETCH FIRST ? ROWS ONLY) r ON r.topic_id = t.id " +
+            "LEFT JOIN users ru ON ru.id = r.author_id " +
+            "WHERE t.id = ? " +
+            "ORDER BY r.created_at, r.id";
+
+    private final ReplyRepository replyRepository;
+    private final TopicRepository topicRepository;
+    private final UserService userService;
+    private final TopicVersionRegistry topicVersionRegistry;
+    private final TopicTrendingIndex topicTrendingIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReplyService(ReplyRepository replyRepository,
+                        TopicRepository topicRepository,
+                        UserService userService,
+                        TopicVersionRegistry topicVersionRegistry,
+                        TopicTrendingIndex topicTrendingIndex,
+                        TransactionTemplate transactionTemplate,
+                        JdbcTemplate jdbcTemplate) {
+        this.replyRepository = replyRepository;
+        this.topicRepository = topicRepository;
+        this.userService = userService;
+        this.topicVersionRegistry = topicVersionRegistry;
+        this.topicTrendingIndex = topicTrendingIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Cria uma resposta em um tópico
+     * @param topicId ID do tópico
+     * @param message mensagem da resposta
+     * @param authorUsername username do autor da resposta
+     * @return Reply criada (com autor carregado)
+     * @throws IllegalArgumentException se o tópico ou o usuário não existirem, ou a mensagem for vazia
+     */
+    public Reply createReply(Long topicId, String message, String authorUsername) {
+        if (message == null || message.trim().isEmpty()) {
+            throw new IllegalArgumentException("Mensagem não pode estar vazia");
+        }
+
+        User author = userService.findByUsername(authorUsername)
+                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado: " + authorUsername));
+
+        // Curso e autor do tópico: escopos das listagens que passam a exibir o novo total de respostas
+        TopicOwnership ownership = topicRepository.findOwnershipById(topicId)
+                .orElseThrow(() -> topicNotFound(topicId));
+
+        LocalDateTime now = Topic.now();
+        long[] topicVersion = new long[1];
+        Reply savedReply = transactionTemplate.execute(status -> {
+            // O UPDATE vem antes do INSERT: trava a linha do tópico e confirma que ele ainda existe.
+            // Soma ao contador, avança a data da última resposta e incrementa a versão (ETag); a versão
+            // é lida em seguida, com a linha ainda travada
+            if (topicRepository.replyAdded(topicId, now) == 0) {
+                throw topicNotFound(topicId);
+            }
+            topicVersion[0] = topicRepository.findVersionById(topicId).orElseThrow(() -> topicNotFound(topicId));
+            return replyRepository.save(
+                    new Reply(message.trim(), topicRepository.getReferenceById(topicId), author, now));
+        });
+
+        topicVersionRegistry.replyAdded(
+                topicId, ownership.getCourseName(), ownership.getAuthorUsername(), topicVersion[0]);
+        topicTrendingIndex.replyAdded(topicId);
+        return savedReply;
+    }
+
+    /**
+     * Lista as respostas de um tópico em ordem cronológica, paginadas por cursor
+     * @param topicId ID do tópico
+     * @param cursor posição após a última resposta da página anterior (null para a primeira página)
+     * @param pageable tamanho da página (TopicService.boundedPageRequest)
+     * @return Slice<Reply>
+     * @throws IllegalArgumentException se o tópico não existir
+     */
+    public Slice<Reply> getReplies(Long topicId, TopicCursor cursor, Pageable pageable) {
+        Slice<Reply> slice = cursor == null
+                ? replyRepository.findFirstSliceByTopic(topicId, pageable)
+                : replyRepository.findSliceByTopicAfter(topicId, cursor.getCreatedAt(), cursor.getId(), pageable);
+
+        // Só a primeira página vazia precisa diferenciar "sem respostas" de "tópico inexistente"
+        if (cursor == null && slice.isEmpty() && !topicRepository.existsById(topicId)) {
+            throw topicNotFound(topicId);
+        }
+        return slice;
+    }
+
+    /**
+     * Busca um tópico com as primeiras respostas em uma única consulta
+     * @param topicId ID do tópico
+     * @param replies quantidade de respostas (limitada a MAX_PAGE_SIZE)
+     * @return Optional<TopicThreadResponse>
+     */
+    public Optional<TopicThreadResponse> getThread(Long topicId, int replies) {
+        int limit = Math.max(1, Math.min(replies, TopicService.MAX_PAGE_SIZE));
+
+        List<ReplyResponse> replyResponses = new ArrayList<>(limit);
+        TopicResponse[] topic = new TopicResponse[1];
+        jdbcTemplate.query(THREAD_SQL, rs -> {
+            if (topic[0] == null) {
+                topic[0] = new TopicResponse(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(8),
+                        rs.getString(9), rs.getObject(4, LocalDateTime.class), rs.getObject(5, LocalDateTime.class));
+                topic[0].setReplyCount(rs.getLong(6));
+                topic[0].setLastReplyAt(rs.getObject(7, LocalDateTime.class));
+            }
+            long replyId = rs.getLong(10);
+            if (!rs.wasNull()) {
+                replyResponses.add(new ReplyResponse(replyId, topicId, rs.getString(11), rs.getString(13),
+                        rs.getObject(12, LocalDateTime.class)));
+            }
+        }, topicId, limit, topicId);
+
+        if (topic[0] == null) {
+            return Optional.empty();
+        }
+
+        // O contador desnormalizado, lido na mesma consulta, diz se há mais respostas sem outra ida ao banco
+        String nextCursor = null;
+        if (topic[0].getReplyCount() > replyResponses.size() && !replyResponses.isEmpty()) {
+            ReplyResponse last = replyResponses.get(replyResponses.size() - 1);
+            nextCursor = new TopicCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return Optional.of(new TopicThreadResponse(topic[0], replyResponses, nextCursor));
+    }
+
+    private static IllegalArgumentException topicNotFound(Long topicId) {
+        return new IllegalArgumentException("Tópico não encontrado com ID: " + topicId);
+    }
+}
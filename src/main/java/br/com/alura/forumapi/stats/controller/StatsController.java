@@ -1,38 +1,31 @@
 package br.com.alura.forumapi.stats.controller;
 
 import br.com.alura.forumapi.config.ApiResponse;
-import br.com.alura.forumapi.topic.service.TopicService;
-import br.com.alura.forumapi.user.service.UserService;
-import br.com.alura.forumapi.course.service.CourseService;
+import br.com.alura.forumapi.stats.dto.CourseStatsResponse;
+import br.com.alura.forumapi.stats.dto.StatsResponse;
+import br.com.alura.forumapi.stats.service.StatsService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
-import java.util.Map;
-
 @RestController
 @RequestMapping("/stats")
 public class StatsController {
 
-    private final TopicService topicService;
-    private final UserService userService;
-    private final CourseService courseService;
+    private final StatsService statsService;
 
-    public StatsController(TopicService topicService, UserService userService, CourseService courseService) {
-        this.topicService = topicService;
-        this.userService = userService;
-        this.courseService = courseService;
+    public StatsController(StatsService statsService) {
+        this.statsService = statsService;
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getStats() {
-        Map<String, Object> stats = new HashMap<>();
-
-        stats.put("totalTopics", topicService.countTopics());
-        stats.put("totalUsers", userService.findAll().size());
-        stats.put("totalCourses", courseService.findAll().size());
+    public ResponseEntity<ApiResponse<StatsResponse>> getStats() {
+        StatsResponse stats = new StatsResponse(
+                statsService.getTotalTopics(),
+                statsService.getTotalUsers(),
+                statsService.getTotalCourses()
+        );
 
-        ApiResponse<Map<String, Object>> response = ApiResponse.success(
+        ApiResponse<StatsResponse> response = ApiResponse.success(
                 "Estatísticas obtidas com sucesso",
                 stats
         );
@@ -41,13 +34,13 @@ public class StatsController {
     }
 
     @GetMapping("/course/{courseName}")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getCourseStats(@PathVariable String courseName) {
-        Map<String, Object> stats = new HashMap<>();
-
-        stats.put("courseName", courseName);
-        stats.put("totalTopics", topicService.countTopicsByCourse(courseName));
+    public ResponseEntity<ApiResponse<CourseStatsResponse>> getCourseStats(@PathVariable String courseName) {
+        CourseStatsResponse stats = new CourseStatsResponse(
+                courseName,
+                statsService.getTopicCountByCourse(courseName)
+        );
 
-        ApiResponse<Map<String, Object>> response = ApiResponse.success(
+        ApiResponse<CourseStatsResponse> response = ApiResponse.success(
                 "Estatísticas do curso obtidas com sucesso",
                 stats
         );
@@ -0,0 +1,23 @@
+package br.com.alura.forumapi.stats.dto;
+
+/**
+ * Estatísticas de um curso (GET /stats/course/{courseName})
+ */
+public class CourseStatsResponse {
+
+    private final String courseName;
+    private final long totalTopics;
+
+    public CourseStatsResponse(String courseName, long totalTopics) {
+        this.courseName = courseName;
+        this.totalTopics = totalTopics;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public long getTotalTopics() {
+        return totalTopics;
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.alura.forumapi.stats.dto;
+
+/**
+ * Estatísticas gerais do fórum (GET /stats)
+ */
+public class StatsResponse {
+
+    private final long totalTopics;
+    private final long totalUsers;
+    private final long totalCourses;
+
+    public StatsResponse(long totalTopics, long totalUsers, long totalCourses) {
+        this.totalTopics = totalTopics;
+        this.totalUsers = totalUsers;
+        this.totalCourses = totalCourses;
+    }
+
+    public long getTotalTopics() {
+        return totalTopics;
+    }
+
+    public long getTotalUsers() {
+        return totalUsers;
+    }
+
+    public long getTotalCourses() {
+        return totalCourses;
+    }
+}
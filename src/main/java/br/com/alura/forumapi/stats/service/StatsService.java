@@ -0,0 +1,162 @@
+package br.com.alura.forumapi.stats.service;
+
+import br.com.alura.forumapi.course.dto.CourseTopicCount;
+import br.com.alura.forumapi.course.repository.CourseRepository;
+import br.com.alura.forumapi.topic.repository.TopicRepository;
+import br.com.alura.forumapi.user.repository.UserRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mantém contadores em memória para as estatísticas do fórum.
+ *
+ * Os contadores são atualizados pelos serviços a cada criação/remoção e reconciliados
+ * periodicamente com consultas COUNT, corrigindo qualquer divergência (ex.: escritas
+ * feitas diretamente no banco). Assim, /stats responde em O(1), sem carregar entidades.
+ * A mesma contagem agrupada corrige courses.topic_count quando o valor desnormalizado diverge.
+ */
+@Service
+public class StatsService {
+
+    private final TopicRepository topicRepository;
+    private final UserRepository userRepository;
+    private final CourseRepository courseRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong totalTopics = new AtomicLong();
+    private final AtomicLong totalUsers = new AtomicLong();
+    private final AtomicLong totalCourses = new AtomicLong();
+    private final Map<String, AtomicLong> topicsByCourse = new ConcurrentHashMap<>();
+
+    public StatsService(TopicRepository topicRepository,
+                        UserRepository userRepository,
+                        CourseRepository courseRepository,
+                        PlatformTransactionManager transactionManager) {
+        this.topicRepository = topicRepository;
+        this.userRepository = userRepository;
+        this.courseRepository = courseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Reconcilia os contadores com o banco (na inicialização e a cada intervalo configurado)
+     */
+    @Scheduled(fixedDelayString = "${stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        totalTopics.set(topicRepository.count());
+        totalUsers.set(userRepository.count());
+
+        List<CourseTopicCount> counts = courseRepository.countTopicsGroupByCourse();
+        totalCourses.set(counts.size());
+        Set<String> courseNames = new HashSet<>();
+        for (CourseTopicCount count : counts) {
+            courseNames.add(count.getCourseName());
+            courseCounter(count.getCourseName()).set(count.getTopicCount());
+            if (count.isDrifted()) {
+                repairTopicCount(count.getCourseId());
+            }
+        }
+        topicsByCourse.keySet().retainAll(courseNames);
+    }
+
+    /**
+     * Registra a criação de um tópico
+     * @param courseName nome do curso do tópico
+     */
+    public void topicCreated(String courseName) {
+        totalTopics.incrementAndGet();
+        courseCounter(courseName).incrementAndGet();
+    }
+
+    /**
+     * Registra vários tópicos criados no mesmo curso (ex.: importação em lote)
+     * @param courseName nome do curso
+     * @param count quantidade de tópicos
+     */
+    public void topicsCreated(String courseName, long count) {
+        totalTopics.addAndGet(count);
+        courseCounter(courseName).addAndGet(count);
+    }
+
+    /**
+     * Registra a remoção de um tópico
+     * @param courseName nome do curso do tópico
+     */
+    public void topicDeleted(String courseName) {
+        totalTopics.decrementAndGet();
+        courseCounter(courseName).decrementAndGet();
+    }
+
+    /**
+     * Registra a mudança de curso de um tópico
+     * @param oldCourseName curso anterior
+     * @param newCourseName novo curso
+     */
+    public void topicMoved(String oldCourseName, String newCourseName) {
+        if (!oldCourseName.equals(newCourseName)) {
+            courseCounter(oldCourseName).decrementAndGet();
+            courseCounter(newCourseName).incrementAndGet();
+        }
+    }
+
+    /**
+     * Registra a criação de um usuário
+     */
+    public void userCreated() {
+        totalUsers.incrementAndGet();
+    }
+
+    /**
+     * Registra a criação de um curso
+     */
+    public void courseCreated() {
+        totalCourses.incrementAndGet();
+    }
+
+    public long getTotalTopics() {
+        return totalTopics.get();
+    }
+
+    public long getTotalUsers() {
+        return totalUsers.get();
+    }
+
+    public long getTotalCourses() {
+        return totalCourses.get();
+    }
+
+    /**
+     * Quantidade de tópicos de um curso
+     * @param courseName nome do curso
+     * @return número de tópicos (0 se o curso não existir)
+     */
+    public long getTopicCountByCourse(String courseName) {
+        AtomicLong counter = topicsByCourse.get(courseName);
+        return counter == null ? 0 : counter.get();
+    }
+
+    /**
+     * Recalcula courses.topic_count com a linha do curso travada: escritas de tópicos concorrentes
+     * esperam o lock para somar ao contador, então a contagem lida aqui não perde nem repete nenhuma
+     */
+    private void repairTopicCount(Long courseId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (courseRepository.lockById(courseId).isPresent()) {
+                courseRepository.recountTopics(courseId);
+            }
+        });
+    }
+
+    private AtomicLong courseCounter(String courseName) {
+        return topicsByCourse.computeIfAbsent(courseName, name -> new AtomicLong());
+    }
+}
@@ -2,121 +2,249 @@ package br.com.alura.forumapi.topic.controller;
 
 
 import br.com.alura.forumapi.config.ApiResponse;
+import br.com.alura.forumapi.topic.dto.TopicCursor;
+import br.com.alura.forumapi.topic.dto.TopicPageResponse;
 import br.com.alura.forumapi.topic.dto.TopicRequest;
 import br.com.alura.forumapi.topic.dto.TopicResponse;
+import br.com.alura.forumapi.topic.dto.TopicSliceResponse;
+import br.com.alura.forumapi.topic.dto.TopicSort;
+import br.com.alura.forumapi.topic.dto.TopicTrendingResponse;
 import br.com.alura.forumapi.topic.dto.TopicUpdateRequest;
+import br.com.alura.forumapi.topic.dto.TopicViewCountResponse;
 import br.com.alura.forumapi.topic.entity.Topic;
+import br.com.alura.forumapi.topic.search.TopicSearchIndex;
+import br.com.alura.forumapi.topic.service.TopicPageCache;
+import br.com.alura.forumapi.topic.service.TopicPageCache.CachedPage;
 import br.com.alura.forumapi.topic.service.TopicService;
+import br.com.alura.forumapi.topic.service.TopicTrendingIndex;
+import br.com.alura.forumapi.topic.service.TopicVersionRegistry;
+import br.com.alura.forumapi.topic.service.TopicViewCounter;
+import br.com.alura.forumapi.topic.stream.TopicEventBus;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/topics")
 public class TopicController {
 
+    // Os clientes podem guardar a resposta, mas devem revalidá-la (If-None-Match) a cada uso
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final TopicService topicService;
+    private final TopicVersionRegistry topicVersionRegistry;
+    private final TopicEventBus topicEventBus;
+    private final TopicPageCache topicPageCache;
+    private final TopicViewCounter topicViewCounter;
+    private final TopicTrendingIndex topicTrendingIndex;
+    private final TopicSearchIndex topicSearchIndex;
 
-    public TopicController(TopicService topicService) {
+    public TopicController(TopicService topicService,
+                           TopicVersionRegistry topicVersionRegistry,
+                           TopicEventBus topicEventBus,
+                           TopicPageCache topicPageCache,
+                           TopicViewCounter topicViewCounter,
+                           TopicTrendingIndex topicTrendingIndex,
+                           TopicSearchIndex topicSearchIndex) {
         this.topicService = topicService;
+        this.topicVersionRegistry = topicVersionRegistry;
+        this.topicEventBus = topicEventBus;
+        this.topicPageCache = topicPageCache;
+        this.topicViewCounter = topicViewCounter;
+        this.topicTrendingIndex = topicTrendingIndex;
+        this.topicSearchIndex = topicSearchIndex;
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<Map<String, Object>>> listTopics(
+    public ResponseEntity<byte[]> listTopics(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir,
             @RequestParam(required = false) String courseName,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean cursor,
+            @RequestParam(required = false) String after,
+            WebRequest webRequest) {
 
-        // Criar objeto de ordenação
-        Sort sort = sortDir.equalsIgnoreCase("desc")
-                ? Sort.by(sortBy).descending()
-                : Sort.by(sortBy).ascending();
+        // Ordenação e paginação validadas antes de qualquer consulta: só chaves com índice (+ id) e tamanho limitado
+        Pageable pageable = TopicService.boundedPageRequest(page, size, TopicSort.fromKey(sortBy).toSort(sortDir));
 
-        Pageable pageable = PageRequest.of(page, size, sort);
+        // Modo cursor (keyset): ordenação fixa por createdAt/id e sem COUNT
+        boolean keyset = cursor || after != null;
+        String searchText = (search == null || search.isBlank()) ? null : search;
 
-        // Buscar tópicos com filtros
-        Page<Topic> topicsPage = topicService.findAllWithFilters(pageable, courseName, search);
+        // Chave do cache: parâmetros já interpretados (padrões aplicados; página e ordenação não se aplicam ao cursor)
+        List<Object> query = keyset
+                ? Arrays.asList("cursor", size, courseName, searchText, after)
+                : Arrays.asList("page", pageable.getPageNumber(), size, pageable.getSort().toString(),
+                        courseName, searchText);
 
-        // Converter para Response DTOs
-        List<TopicResponse> topicResponses = topicsPage.getContent()
-                .stream()
-                .map(TopicResponse::new)
-                .collect(Collectors.toList());
-
-        // Criar resposta com metadados de paginação
-        Map<String, Object> responseData = new HashMap<>();
-        responseData.put("topics", topicResponses);
-        responseData.put("currentPage", topicsPage.getNumber());
-        responseData.put("totalItems", topicsPage.getTotalElements());
-        responseData.put("totalPages", topicsPage.getTotalPages());
-        responseData.put("pageSize", topicsPage.getSize());
-        responseData.put("isFirst", topicsPage.isFirst());
-        responseData.put("isLast", topicsPage.isLast());
-
-        ApiResponse<Map<String, Object>> response = ApiResponse.success(
+        Supplier<ApiResponse<?>> body = () -> {
+            if (keyset) {
+                return listTopicsByCursor(size, courseName, search, after);
+            }
+
+            // Buscar tópicos com filtros
+            Page<Topic> topicsPage = topicService.findAllWithFilters(pageable, courseName, search);
+
+            return ApiResponse.success(
+                    "Tópicos listados com sucesso",
+                    new TopicPageResponse(topicsPage)
+            );
+        };
+
+        // Busca antes de o índice terminar de ser reconstruído: o resultado vem do LIKE, com outra ordem e
+        // semântica, e a versão da listagem não muda quando o índice fica pronto, então não vai para o cache
+        // nem ganha ETag
+        if (searchText != null && !topicSearchIndex.isReady()) {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(topicPageCache.uncached(body).getJson());
+        }
+
+        String etag = topicVersionRegistry.topicsETag(courseName, queryKey(webRequest));
+        return cachedPage(webRequest, etag, courseName, query, body);
+    }
+
+    private ApiResponse<TopicSliceResponse> listTopicsByCursor(
+            int size, String courseName, String search, String after) {
+
+        TopicCursor afterCursor = (after == null || after.isBlank()) ? null : TopicCursor.decode(after);
+        Slice<Topic> topicsSlice = topicService.findSliceWithFilters(size, courseName, search, afterCursor);
+
+        return ApiResponse.success(
                 "Tópicos listados com sucesso",
-                responseData
+                new TopicSliceResponse(topicsSlice)
         );
-
-        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/my-topics")
-    public ResponseEntity<ApiResponse<List<TopicResponse>>> getMyTopics(
-            @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<ApiResponse<TopicPageResponse>> getMyTopics(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest webRequest) {
 
-        List<Topic> myTopics = topicService.findByAuthorUsername(userDetails.getUsername());
-        List<TopicResponse> response = myTopics.stream()
-                .map(TopicResponse::new)
-                .collect(Collectors.toList());
+        String etag = topicVersionRegistry.authorTopicsETag(userDetails.getUsername(), queryKey(webRequest));
+        return conditional(webRequest, etag, () -> {
+            Page<Topic> myTopics = topicService.findByAuthorUsername(
+                    userDetails.getUsername(), TopicService.boundedPageRequest(page, size));
 
-        ApiResponse<List<TopicResponse>> apiResponse = ApiResponse.success(
-                "Seus tópicos listados com sucesso",
-                response
-        );
-        return ResponseEntity.ok(apiResponse);
+            return ApiResponse.success(
+                    "Seus tópicos listados com sucesso",
+                    new TopicPageResponse(myTopics)
+            );
+        });
     }
 
     @GetMapping("/course/{courseName}")
-    public ResponseEntity<ApiResponse<List<TopicResponse>>> getTopicsByCourse(
-            @PathVariable String courseName) {
+    public ResponseEntity<byte[]> getTopicsByCourse(
+            @PathVariable String courseName,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest webRequest) {
+
+        Pageable pageable = TopicService.boundedPageRequest(page, size);
+
+        String etag = topicVersionRegistry.topicsETag(courseName, queryKey(webRequest));
+        List<Object> query = Arrays.asList("course", courseName, page, size);
+        return cachedPage(webRequest, etag, courseName, query, () -> {
+            Page<Topic> topics = topicService.findByCourse(courseName, pageable);
+
+            return ApiResponse.success(
+                    "Tópicos do curso " + courseName + " listados com sucesso",
+                    new TopicPageResponse(topics)
+            );
+        });
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTopics(@RequestParam(required = false) String course) {
+        // Conexão assíncrona: nenhuma thread fica presa enquanto não há eventos.
+        // Acima do limite, 503 sem corpo (um ErrorResponse JSON não é aceito por um cliente SSE)
+        return topicEventBus.subscribe(course)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "5")
+                        .build());
+    }
 
-        List<Topic> topics = topicService.findByCourse(courseName);
-        List<TopicResponse> response = topics.stream()
-                .map(TopicResponse::new)
-                .collect(Collectors.toList());
+    @GetMapping("/most-viewed")
+    public ResponseEntity<ApiResponse<List<TopicViewCountResponse>>> getMostViewedTopics(
+            @RequestParam(defaultValue = "10") int limit) {
 
-        ApiResponse<List<TopicResponse>> apiResponse = ApiResponse.success(
-                "Tópicos do curso " + courseName + " listados com sucesso",
-                response
+        if (limit < 1 || limit > TopicService.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + TopicService.MAX_PAGE_SIZE);
+        }
+
+        // Ranking mantido em memória, recalculado a cada flush das visualizações
+        ApiResponse<List<TopicViewCountResponse>> response = ApiResponse.success(
+                "Tópicos mais vistos listados com sucesso",
+                topicViewCounter.mostViewed(limit)
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<ApiResponse<List<TopicTrendingResponse>>> getTrendingTopics(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String course) {
+
+        if (limit < 1 || limit > TopicService.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limite deve estar entre 1 e " + TopicService.MAX_PAGE_SIZE);
+        }
+
+        // Listas prontas em memória (geral e por curso), sem consulta ao banco
+        ApiResponse<List<TopicTrendingResponse>> response = ApiResponse.success(
+                "Tópicos em alta listados com sucesso",
+                topicTrendingIndex.trending(course, limit)
         );
-        return ResponseEntity.ok(apiResponse);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<TopicResponse>> getTopicById(@PathVariable Long id) {
-        return topicService.findById(id)
-                .map(topic -> {
-                    ApiResponse<TopicResponse> response = ApiResponse.success(
-                            "Tópico encontrado",
-                            new TopicResponse(topic)
-                    );
-                    return ResponseEntity.ok(response);
-                })
+    public ResponseEntity<ApiResponse<TopicResponse>> getTopicById(@PathVariable Long id, WebRequest webRequest) {
+        // Versão já conhecida: If-None-Match é respondido sem consultar o banco
+        Optional<String> knownETag = topicVersionRegistry.findTopicETag(id);
+        if (knownETag.isPresent() && webRequest.checkNotModified(knownETag.get())) {
+            topicViewCounter.recordView(id);
+            topicTrendingIndex.topicViewed(id);
+            return notModified();
+        }
+
+        // Visualização contada em memória (inclusive 304); o banco recebe a soma no próximo flush
+        Optional<Topic> found = topicService.findById(id);
+        found.ifPresent(topic -> {
+            topicViewCounter.recordView(id);
+            topicTrendingIndex.topicViewed(topic);
+        });
+
+        return found
+                .map(topic -> conditional(webRequest, topicVersionRegistry.topicETag(topic), () ->
+                        ApiResponse.success(
+                                "Tópico encontrado",
+                                new TopicResponse(topic)
+                        )))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -173,4 +301,73 @@ public class TopicController {
         );
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Responde 304 se o If-None-Match conferir com o ETag; caso contrário monta o corpo
+     * (a consulta ao banco e a serialização só acontecem quando o conteúdo mudou)
+     */
+    private <T> ResponseEntity<T> conditional(WebRequest webRequest, String etag, Supplier<T> body) {
+        if (webRequest.checkNotModified(etag)) {
+            return notModified();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .body(body.get());
+    }
+
+    /**
+     * Como conditional, mas o corpo sai já serializado do TopicPageCache (sem Jackson nem banco em um acerto)
+     * A versão é lida antes de montar o corpo: uma escrita concorrente no máximo guarda dados mais novos
+     * sob a versão anterior, que deixa de ser consultada
+     */
+    private ResponseEntity<byte[]> cachedPage(WebRequest webRequest, String etag, String courseName,
+                                              List<Object> query, Supplier<ApiResponse<?>> body) {
+        if (webRequest.checkNotModified(etag)) {
+            return notModified();
+        }
+
+        CachedPage page = topicPageCache.get(topicVersionRegistry.topicsVersion(courseName), query, body);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (topicPageCache.isGzipEnabled()) {
+            response.varyBy(HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (page.getGzip() != null && acceptsGzip(webRequest)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(page.getGzip());
+        }
+        return response.body(page.getJson());
+    }
+
+    private static boolean acceptsGzip(WebRequest webRequest) {
+        String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        return Arrays.stream(acceptEncoding.split(","))
+                .map(String::trim)
+                .anyMatch(encoding -> encoding.regionMatches(true, 0, "gzip", 0, 4)
+                        && !encoding.replace(" ", "").endsWith("q=0"));
+    }
+
+    // O ETag já foi gravado na resposta por checkNotModified
+    private static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(REVALIDATE)
+                .build();
+    }
+
+    /**
+     * Parâmetros da requisição em ordem estável (compõem o ETag das listagens)
+     */
+    private static String queryKey(WebRequest webRequest) {
+        return new TreeMap<>(webRequest.getParameterMap()).entrySet()
+                .stream()
+                .map(entry -> entry.getKey() + "=" + String.join(",", entry.getValue()))
+                .collect(Collectors.joining("&"));
+    }
+
 }
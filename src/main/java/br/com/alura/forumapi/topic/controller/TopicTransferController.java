@@ -0,0 +1,60 @@
+package br.com.alura.forumapi.topic.controller;
+
+import br.com.alura.forumapi.config.ApiResponse;
+import br.com.alura.forumapi.topic.dto.TopicImportResult;
+import br.com.alura.forumapi.topic.service.TopicTransferService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/admin/topics")
+public class TopicTransferController {
+
+    private final TopicTransferService topicTransferService;
+
+    public TopicTransferController(TopicTransferService topicTransferService) {
+        this.topicTransferService = topicTransferService;
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTopics(@AuthenticationPrincipal UserDetails userDetails) {
+        // Permissão verificada antes de começar a resposta: depois do primeiro byte o status já foi enviado
+        topicTransferService.checkAdmin(userDetails.getUsername());
+
+        StreamingResponseBody body = topicTransferService::exportTo;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("topics.ndjson").build().toString())
+                .body(body);
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<ApiResponse<TopicImportResult>> importTopics(
+            @AuthenticationPrincipal UserDetails userDetails,
+            InputStream body) throws IOException {
+
+        topicTransferService.checkAdmin(userDetails.getUsername());
+
+        // O corpo é lido em fluxo, linha a linha (NDJSON), sem ser carregado inteiro
+        TopicImportResult result = topicTransferService.importFrom(body);
+
+        ApiResponse<TopicImportResult> response = ApiResponse.success(
+                "Importação concluída",
+                result
+        );
+        return ResponseEntity.ok(response);
+    }
+}
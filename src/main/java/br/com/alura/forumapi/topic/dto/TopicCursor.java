@@ -0,0 +1,74 @@
+package br.com.alura.forumapi.topic.dto;
+
+import br.com.alura.forumapi.topic.entity.Topic;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Cursor opaco para paginação por keyset em (createdAt, id).
+ * O cliente recebe o token em "nextCursor" e o devolve no parâmetro "after".
+ */
+public class TopicCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public TopicCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    /**
+     * Cria o cursor apontando para o último tópico de uma página
+     * @param topic último tópico retornado
+     * @return TopicCursor
+     */
+    public static TopicCursor of(Topic topic) {
+        return new TopicCursor(topic.getCreatedAt(), topic.getId());
+    }
+
+    /**
+     * Codifica o cursor em um token opaco (Base64 URL-safe)
+     * @return token do cursor
+     */
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica um token recebido do cliente
+     * @param token token do cursor
+     * @return TopicCursor
+     * @throws IllegalArgumentException se o token for inválido
+     */
+    public static TopicCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            if (separatorIndex <= 0) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+
+            LocalDateTime createdAt = LocalDateTime.parse(raw.substring(0, separatorIndex));
+            Long id = Long.valueOf(raw.substring(separatorIndex + 1));
+            return new TopicCursor(createdAt, id);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.alura.forumapi.topic.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumo de uma importação de tópicos: linhas gravadas, linhas recusadas
+ * e o motivo das primeiras recusas (com o número da linha)
+ */
+public class TopicImportResult {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private long imported;
+    private long rejected;
+    private final List<String> errors = new ArrayList<>();
+
+    /**
+     * Registra linhas gravadas
+     * @param count quantidade de linhas
+     */
+    public void imported(long count) {
+        imported += count;
+    }
+
+    /**
+     * Registra uma linha recusada
+     * @param lineNumber número da linha no arquivo (a partir de 1)
+     * @param reason motivo da recusa
+     */
+    public void rejected(long lineNumber, String reason) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("Linha " + lineNumber + ": " + reason);
+        }
+    }
+
+    /**
+     * Registra um intervalo de linhas recusadas em conjunto (ex.: lote que falhou ao gravar)
+     * @param firstLine primeira linha do intervalo
+     * @param lastLine última linha do intervalo
+     * @param count quantidade de linhas recusadas (linhas em branco ou já recusadas no intervalo não contam)
+     * @param reason motivo da recusa
+     */
+    public void rejected(long firstLine, long lastLine, long count, String reason) {
+        rejected += count;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("Linhas " + firstLine + "-" + lastLine + ": " + reason);
+        }
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
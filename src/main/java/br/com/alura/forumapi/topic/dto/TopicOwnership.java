@@ -0,0 +1,24 @@
+package br.com.alura.forumapi.topic.dto;
+
+/**
+ * Autor e curso de um tópico, lidos sem carregar a entidade
+ * (usado para validar permissão antes de escritas condicionais)
+ */
+public class TopicOwnership {
+
+    private final String authorUsername;
+    private final String courseName;
+
+    public TopicOwnership(String authorUsername, String courseName) {
+        this.authorUsername = authorUsername;
+        this.courseName = courseName;
+    }
+
+    public String getAuthorUsername() {
+        return authorUsername;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+}
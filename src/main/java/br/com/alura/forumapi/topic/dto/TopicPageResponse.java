@@ -0,0 +1,35 @@
+package br.com.alura.forumapi.topic.dto;
+
+import br.com.alura.forumapi.config.PageResponse;
+import br.com.alura.forumapi.topic.entity.Topic;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.springframework.data.domain.Page;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Página de tópicos (GET /topics, /my-topics e /course/{courseName})
+ */
+@JsonPropertyOrder({"topics", "currentPage", "totalItems", "totalPages", "pageSize", "isFirst", "isLast"})
+public class TopicPageResponse extends PageResponse {
+
+    private final List<TopicResponse> topics;
+
+    public TopicPageResponse(Page<Topic> page) {
+        super(page);
+        this.topics = toResponses(page.getContent());
+    }
+
+    public List<TopicResponse> getTopics() {
+        return topics;
+    }
+
+    static List<TopicResponse> toResponses(List<Topic> topics) {
+        List<TopicResponse> responses = new ArrayList<>(topics.size());
+        for (Topic topic : topics) {
+            responses.add(new TopicResponse(topic));
+        }
+        return responses;
+    }
+}
@@ -1,10 +1,12 @@
 package br.com.alura.forumapi.topic.dto;
 
 import br.com.alura.forumapi.topic.entity.Topic;
-import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import java.time.LocalDateTime;
 
+// Serialização pelo TopicResponseSerializer (mesmos campos, na ordem declarada aqui)
+@JsonSerialize(using = TopicResponseSerializer.class)
 public class TopicResponse {
 
     private Long id;
@@ -12,12 +14,10 @@ public class TopicResponse {
     private String message;
     private String authorUsername;
     private String courseName;
-
-    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime createdAt;
-
-    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime updatedAt;
+    private long replyCount;
+    private LocalDateTime lastReplyAt;
 
     // Constructors
     public TopicResponse() {}
@@ -30,6 +30,8 @@ public class TopicResponse {
         this.courseName = topic.getCourse().getName();
         this.createdAt = topic.getCreatedAt();
         this.updatedAt = topic.getUpdatedAt();
+        this.replyCount = topic.getReplyCount();
+        this.lastReplyAt = topic.getLastReplyAt();
     }
 
     public TopicResponse(Long id, String title, String message, String authorUsername,
@@ -99,4 +101,20 @@ public class TopicResponse {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public long getReplyCount() {
+        return replyCount;
+    }
+
+    public void setReplyCount(long replyCount) {
+        this.replyCount = replyCount;
+    }
+
+    public LocalDateTime getLastReplyAt() {
+        return lastReplyAt;
+    }
+
+    public void setLastReplyAt(LocalDateTime lastReplyAt) {
+        this.lastReplyAt = lastReplyAt;
+    }
 }
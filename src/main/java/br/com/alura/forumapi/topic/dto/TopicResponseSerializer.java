@@ -0,0 +1,65 @@
+package br.com.alura.forumapi.topic.dto;
+
+import br.com.alura.forumapi.config.JsonDateTimeSerializer;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Serializador fixo do TopicResponse: o DTO mais repetido nas respostas (até 100 por página).
+ *
+ * Os nomes dos campos ficam pré-codificados (SerializedString) e os valores são escritos direto,
+ * sem a introspecção de getters nem a resolução de @JsonFormat por propriedade do BeanSerializer.
+ * O JSON é o mesmo: mesmos campos, mesma ordem e datas no formato da API.
+ */
+public class TopicResponseSerializer extends StdSerializer<TopicResponse> {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final SerializableString AUTHOR_USERNAME = new SerializedString("authorUsername");
+    private static final SerializableString COURSE_NAME = new SerializedString("courseName");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializableString REPLY_COUNT = new SerializedString("replyCount");
+    private static final SerializableString LAST_REPLY_AT = new SerializedString("lastReplyAt");
+
+    public TopicResponseSerializer() {
+        super(TopicResponse.class);
+    }
+
+    @Override
+    public void serialize(TopicResponse topic, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject(topic);
+
+        generator.writeFieldName(ID);
+        if (topic.getId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(topic.getId());
+        }
+        generator.writeFieldName(TITLE);
+        generator.writeString(topic.getTitle());
+        generator.writeFieldName(MESSAGE);
+        generator.writeString(topic.getMessage());
+        generator.writeFieldName(AUTHOR_USERNAME);
+        generator.writeString(topic.getAuthorUsername());
+        generator.writeFieldName(COURSE_NAME);
+        generator.writeString(topic.getCourseName());
+        generator.writeFieldName(CREATED_AT);
+        JsonDateTimeSerializer.write(topic.getCreatedAt(), generator);
+        generator.writeFieldName(UPDATED_AT);
+        JsonDateTimeSerializer.write(topic.getUpdatedAt(), generator);
+        generator.writeFieldName(REPLY_COUNT);
+        generator.writeNumber(topic.getReplyCount());
+        generator.writeFieldName(LAST_REPLY_AT);
+        JsonDateTimeSerializer.write(topic.getLastReplyAt(), generator);
+
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.alura.forumapi.topic.dto;
+
+import br.com.alura.forumapi.topic.entity.Topic;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Página de tópicos no modo cursor (GET /topics?cursor=true), sem total de itens
+ */
+@JsonPropertyOrder({"topics", "pageSize", "hasNext", "nextCursor"})
+public class TopicSliceResponse {
+
+    private final List<TopicResponse> topics;
+    private final int pageSize;
+    private final boolean hasNext;
+    private final String nextCursor;
+
+    public TopicSliceResponse(Slice<Topic> slice) {
+        this.topics = TopicPageResponse.toResponses(slice.getContent());
+        this.pageSize = slice.getSize();
+        this.hasNext = slice.hasNext();
+
+        // O próximo cursor aponta para o último tópico desta página
+        List<Topic> content = slice.getContent();
+        this.nextCursor = slice.hasNext() && !content.isEmpty()
+                ? TopicCursor.of(content.get(content.size() - 1)).encode()
+                : null;
+    }
+
+    public List<TopicResponse> getTopics() {
+        return topics;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.alura.forumapi.topic.dto;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Ordenações aceitas na listagem de tópicos (parâmetro sortBy).
+ *
+ * Cada chave pública aponta para uma coluna com índice (ver db/migration) e recebe o id como
+ * desempate, para que a ordem entre páginas seja estável. Qualquer outra chave é recusada
+ * antes de montar a consulta.
+ */
+public enum TopicSort {
+
+    CREATED_AT("createdAt", "createdAt"),
+    UPDATED_AT("updatedAt", "updatedAt"),
+    TITLE("title", "title");
+
+    private static final String TIEBREAKER = "id";
+
+    private final String key;
+    private final String property;
+
+    TopicSort(String key, String property) {
+        this.key = key;
+        this.property = property;
+    }
+
+    /**
+     * Resolve a chave recebida na requisição
+     * @param key chave pública (createdAt, updatedAt, title)
+     * @return TopicSort
+     * @throws IllegalArgumentException se a chave não for aceita
+     */
+    public static TopicSort fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(sort -> sort.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Ordenação inválida: " + key + ". Valores aceitos: " + acceptedKeys()));
+    }
+
+    /**
+     * Monta a ordenação com o id como desempate, na mesma direção
+     * @param direction "asc" ou "desc"
+     * @return Sort
+     * @throws IllegalArgumentException se a direção não for asc/desc
+     */
+    public Sort toSort(String direction) {
+        Sort.Direction sortDirection = Sort.Direction.fromOptionalString(direction)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Direção de ordenação inválida: " + direction + ". Valores aceitos: asc, desc"));
+        return Sort.by(sortDirection, property, TIEBREAKER);
+    }
+
+    private static String acceptedKeys() {
+        return Arrays.stream(values())
+                .map(sort -> sort.key)
+                .collect(Collectors.joining(", "));
+    }
+}
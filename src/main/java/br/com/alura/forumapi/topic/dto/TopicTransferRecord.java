@@ -0,0 +1,88 @@
+package br.com.alura.forumapi.topic.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Uma linha do NDJSON de exportação/importação de tópicos (/admin/topics).
+ * Autor e curso vão pelo nome; na importação o id é ignorado (os tópicos recebem IDs novos)
+ * e as datas, se ausentes, assumem o instante da importação.
+ */
+public class TopicTransferRecord {
+
+    private Long id;
+    private String title;
+    private String message;
+    private String author;
+    private String course;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public TopicTransferRecord() {}
+
+    public TopicTransferRecord(Long id, String title, String message, String author, String course,
+                               LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.message = message;
+        this.author = author;
+        this.course = course;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public String getCourse() {
+        return course;
+    }
+
+    public void setCourse(String course) {
+        this.course = course;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
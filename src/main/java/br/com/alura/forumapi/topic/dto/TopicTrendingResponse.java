@@ -0,0 +1,27 @@
+package br.com.alura.forumapi.topic.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Item do ranking de tópicos em alta (GET /topics/trending)
+ */
+@JsonPropertyOrder({"topic", "score"})
+public class TopicTrendingResponse {
+
+    private final TopicResponse topic;
+    private final double score;
+
+    public TopicTrendingResponse(TopicResponse topic, double score) {
+        this.topic = topic;
+        // Score com decaimento no instante do último recálculo (3 casas bastam para comparar)
+        this.score = Math.round(score * 1000) / 1000.0;
+    }
+
+    public TopicResponse getTopic() {
+        return topic;
+    }
+
+    public double getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.alura.forumapi.topic.dto;
+
+import br.com.alura.forumapi.topic.entity.Topic;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Item do ranking de tópicos mais vistos (GET /topics/most-viewed)
+ */
+@JsonPropertyOrder({"topic", "viewCount"})
+public class TopicViewCountResponse {
+
+    private final TopicResponse topic;
+    private final long viewCount;
+
+    public TopicViewCountResponse(Topic topic) {
+        this.topic = new TopicResponse(topic);
+        this.viewCount = topic.getViewCount();
+    }
+
+    public TopicResponse getTopic() {
+        return topic;
+    }
+
+    public long getViewCount() {
+        return viewCount;
+    }
+}
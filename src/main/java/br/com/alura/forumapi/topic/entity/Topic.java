@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
 @Table(name = "topics")
@@ -16,8 +17,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Topic {
 
+    // Sequence com blocos de 50 (pooled-lo): IDs atribuídos em memória, o que permite inserts em lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "topics_id_seq")
+    @SequenceGenerator(name = "topics_id_seq", sequenceName = "topics_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "title", nullable = false)
@@ -32,6 +35,21 @@ public class Topic {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Mantidos apenas pelos UPDATEs atômicos das respostas (ReplyService)
+    @Column(name = "reply_count", nullable = false, insertable = false, updatable = false)
+    private long replyCount;
+
+    @Column(name = "last_reply_at", insertable = false, updatable = false)
+    private LocalDateTime lastReplyAt;
+
+    // Mantido apenas pelo flush em lote do TopicViewCounter
+    @Column(name = "view_count", nullable = false, insertable = false, updatable = false)
+    private long viewCount;
+
+    // Versão usada no ETag: somada pelos UPDATEs de edição e de resposta (0 ao criar)
+    @Column(name = "version", nullable = false, insertable = false, updatable = false)
+    private long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     private User author;
@@ -42,13 +60,22 @@ public class Topic {
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        createdAt = now();
+        updatedAt = createdAt;
     }
 
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = now();
+    }
+
+    /**
+     * Instante atual com a precisão da coluna (microssegundos): o valor em memória é o mesmo
+     * que o banco grava, sem o arredondamento dos nanossegundos
+     * @return LocalDateTime truncado em microssegundos
+     */
+    public static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     public Topic(String title, String message, User author, Course course) {
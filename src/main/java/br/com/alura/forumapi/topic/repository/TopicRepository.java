@@ -1,32 +1,49 @@
 package br.com.alura.forumapi.topic.repository;
 
+import br.com.alura.forumapi.topic.dto.TopicOwnership;
 import br.com.alura.forumapi.topic.entity.Topic;
+import br.com.alura.forumapi.topic.search.TopicSearchDocument;
 import br.com.alura.forumapi.user.entity.User;
 import br.com.alura.forumapi.course.entity.Course;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * As consultas de listagem carregam autor e curso na mesma consulta (entity graph),
+ * evitando N+1 ao montar o TopicResponse de cada linha.
+ */
 @Repository
 public interface TopicRepository extends JpaRepository<Topic, Long> {
 
     /**
-     * Busca todos os tópicos ordenados por data de criação (mais recentes primeiro)
-     * @return List<Topic>
+     * Busca os tópicos mais recentes, limitados ao tamanho da página (sem COUNT)
+     * @param pageable configuração de paginação
+     * @return Slice<Topic>
      */
-    List<Topic> findAllByOrderByCreatedAtDesc();
+    @EntityGraph(attributePaths = {"author", "course"})
+    Slice<Topic> findAllByOrderByCreatedAtDesc(Pageable pageable);
 
     /**
      * Busca paginada de todos os tópicos
      * @param pageable configuração de paginação
      * @return Page<Topic>
      */
+    @EntityGraph(attributePaths = {"author", "course"})
     Page<Topic> findAll(Pageable pageable);
 
     /**
@@ -35,30 +52,37 @@ public interface TopicRepository extends JpaRepository<Topic, Long> {
      * @param pageable configuração de paginação
      * @return Page<Topic>
      */
+    @EntityGraph(attributePaths = {"author", "course"})
     Page<Topic> findByCourse(Course course, Pageable pageable);
 
     /**
-     * Busca tópicos por autor
+     * Busca tópicos por autor com paginação
      * @param author autor dos tópicos
-     * @return List<Topic>
+     * @param pageable configuração de paginação
+     * @return Page<Topic>
      */
-    List<Topic> findByAuthorOrderByCreatedAtDesc(User author);
+    @EntityGraph(attributePaths = {"author", "course"})
+    Page<Topic> findByAuthorOrderByCreatedAtDesc(User author, Pageable pageable);
 
     /**
-     * Busca tópicos por autor username
+     * Busca tópicos por autor username com paginação
      * @param username username do autor
-     * @return List<Topic>
+     * @param pageable configuração de paginação
+     * @return Page<Topic>
      */
+    @EntityGraph(attributePaths = {"author", "course"})
     @Query("SELECT t FROM Topic t WHERE t.author.username = :username ORDER BY t.createdAt DESC")
-    List<Topic> findByAuthorUsernameOrderByCreatedAtDesc(@Param("username") String username);
+    Page<Topic> findByAuthorUsernameOrderByCreatedAtDesc(@Param("username") String username, Pageable pageable);
 
     /**
-     * Busca tópicos por nome do curso (usando join)
+     * Busca tópicos por nome do curso (usando join) com paginação
      * @param courseName nome do curso
-     * @return List<Topic>
+     * @param pageable configuração de paginação
+     * @return Page<Topic>
      */
+    @EntityGraph(attributePaths = {"author", "course"})
     @Query("SELECT t FROM Topic t WHERE t.course.name = :courseName ORDER BY t.createdAt DESC")
-    List<Topic> findByCourseNameOrderByCreatedAtDesc(@Param("courseName") String courseName);
+    Page<Topic> findByCourseNameOrderByCreatedAtDesc(@Param("courseName") String courseName, Pageable pageable);
 
     /**
      * Busca tópicos por nome do curso com paginação
@@ -66,6 +90,7 @@ public interface TopicRepository extends JpaRepository<Topic, Long> {
      * @param pageable configuração de paginação
      * @return Page<Topic>
      */
+    @EntityGraph(attributePaths = {"author", "course"})
     @Query("SELECT t FROM Topic t WHERE t.course.name = :courseName")
     Page<Topic> findByCourseNameWithPagination(@Param("courseName") String courseName, Pageable pageable);
 
@@ -75,6 +100,7 @@ public interface TopicRepository extends JpaRepository<Topic, Long> {
      * @param pageable configuração de paginação
      * @return Page<Topic>
      */
+    @EntityGraph(attributePaths = {"author", "course"})
     @Query("SELECT t FROM Topic t WHERE " +
             "LOWER(t.title) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
             "LOWER(t.message) LIKE LOWER(CONCAT('%', :searchText, '%'))")
@@ -87,6 +113,7 @@ public interface TopicRepository extends JpaRepository<Topic, Long> {
      * @param pageable configuração de paginação
      * @return Page<Topic>
      */
+    @EntityGraph(attributePaths = {"author", "course"})
     @Query("SELECT t FROM Topic t WHERE " +
             "(:courseName IS NULL OR t.course.name = :courseName) AND " +
             "(:searchText IS NULL OR " +
@@ -96,6 +123,75 @@ public interface TopicRepository extends JpaRepository<Topic, Long> {
                                 @Param("searchText") String searchText,
                                 Pageable pageable);
 
+    /**
+     * Primeira página da listagem por keyset (sem COUNT)
+     * @param courseName nome do curso (opcional)
+     * @param searchText texto de busca por LIKE (opcional; normalmente a busca usa o TopicSearchIndex)
+     * @param pageable tamanho da página (a ordenação é fixa em createdAt, id)
+     * @return Slice<Topic>
+     */
+    @EntityGraph(attributePaths = {"author", "course"})
+    @Query("SELECT t FROM Topic t WHERE " +
+            "(:courseName IS NULL OR t.course.name = :courseName) AND " +
+            "(:searchText IS NULL OR " +
+            "LOWER(t.title) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
+            "LOWER(t.message) LIKE LOWER(CONCAT('%', :searchText, '%'))) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<Topic> findFirstSliceWithFilters(@Param("courseName") String courseName,
+                                           @Param("searchText") String searchText,
+                                           Pageable pageable);
+
+    /**
+     * Próximas páginas da listagem por keyset: busca a partir do cursor (createdAt, id)
+     * @param courseName nome do curso (opcional)
+     * @param searchText texto de busca por LIKE (opcional; normalmente a busca usa o TopicSearchIndex)
+     * @param createdAt data de criação do último tópico da página anterior
+     * @param id ID do último tópico da página anterior
+     * @param pageable tamanho da página (a ordenação é fixa em createdAt, id)
+     * @return Slice<Topic>
+     */
+    @EntityGraph(attributePaths = {"author", "course"})
+    @Query("SELECT t FROM Topic t WHERE " +
+            "(:courseName IS NULL OR t.course.name = :courseName) AND " +
+            "(:searchText IS NULL OR " +
+            "LOWER(t.title) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
+            "LOWER(t.message) LIKE LOWER(CONCAT('%', :searchText, '%'))) AND " +
+            "(t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+            "ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<Topic> findSliceWithFiltersAfter(@Param("courseName") String courseName,
+                                           @Param("searchText") String searchText,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+
+    /**
+     * Busca um tópico por ID já com autor e curso carregados
+     * @param id ID do tópico
+     * @return Optional<Topic>
+     */
+    @EntityGraph(attributePaths = {"author", "course"})
+    @Query("SELECT t FROM Topic t WHERE t.id = :id")
+    Optional<Topic> findWithAuthorAndCourseById(@Param("id") Long id);
+
+    /**
+     * Busca tópicos pelos IDs já com autor e curso carregados
+     * @param ids IDs dos tópicos
+     * @return List<Topic> (sem ordem garantida)
+     */
+    @EntityGraph(attributePaths = {"author", "course"})
+    List<Topic> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Busca os dados de indexação dos tópicos com ID maior que o informado (keyset por ID)
+     * Usado para reconstruir o índice de busca em lotes
+     * @param lastId último ID já processado
+     * @param pageable tamanho do lote
+     * @return List<TopicSearchDocument>
+     */
+    @Query("SELECT new br.com.alura.forumapi.topic.search.TopicSearchDocument(t.id, t.title, t.message, t.course.name, t.createdAt) " +
+            "FROM Topic t WHERE t.id > :lastId ORDER BY t.id")
+    List<TopicSearchDocument> findSearchDocumentsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
     /**
      * Verifica se um tópico pertence a um usuário específico
      * @param topicId ID do tópico
@@ -105,6 +201,109 @@ public interface TopicRepository extends JpaRepository<Topic, Long> {
     @Query("SELECT t FROM Topic t WHERE t.id = :topicId AND t.author.id = :authorId")
     Optional<Topic> findByIdAndAuthorId(@Param("topicId") Long topicId, @Param("authorId") Long authorId);
 
+    /**
+     * Verifica se um tópico pertence a um usuário (uma única consulta)
+     * @param topicId ID do tópico
+     * @param username username do autor
+     * @return true se o tópico existir e pertencer ao usuário
+     */
+    boolean existsByIdAndAuthorUsername(Long topicId, String username);
+
+    /**
+     * Busca autor e curso de um tópico sem carregar a entidade
+     * @param topicId ID do tópico
+     * @return Optional<TopicOwnership>
+     */
+    @Query("SELECT new br.com.alura.forumapi.topic.dto.TopicOwnership(a.username, c.name) " +
+            "FROM Topic t JOIN t.author a JOIN t.course c WHERE t.id = :topicId")
+    Optional<TopicOwnership> findOwnershipById(@Param("topicId") Long topicId);
+
+    /**
+     * Busca autor e curso de um tópico travando a linha até o fim da transação (SELECT ... FOR UPDATE)
+     * Usado antes da remoção: o curso lido é o da linha que será apagada, mesmo com uma mudança de curso concorrente
+     * @param topicId ID do tópico
+     * @return Optional<TopicOwnership>
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new br.com.alura.forumapi.topic.dto.TopicOwnership(t.author.username, t.course.name) " +
+            "FROM Topic t WHERE t.id = :topicId")
+    Optional<TopicOwnership> findOwnershipForUpdateById(@Param("topicId") Long topicId);
+
+    /**
+     * Atualiza título e/ou mensagem somente se o tópico pertencer ao usuário, incrementando a versão (ETag)
+     * A permissão é validada no próprio UPDATE, que trava a linha até o fim da transação
+     * @param topicId ID do tópico
+     * @param username username do autor
+     * @param title novo título (null mantém o atual)
+     * @param message nova mensagem (null mantém a atual)
+     * @param updatedAt data da alteração
+     * @return quantidade de linhas alteradas (0 se o tópico não existir ou for de outro usuário)
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Topic t SET t.title = COALESCE(:title, t.title), t.message = COALESCE(:message, t.message), " +
+            "t.updatedAt = :updatedAt, t.version = t.version + 1 " +
+            "WHERE t.id = :topicId AND t.author.id IN (SELECT u.id FROM User u WHERE u.username = :username)")
+    int updateIfOwner(@Param("topicId") Long topicId,
+                      @Param("username") String username,
+                      @Param("title") String title,
+                      @Param("message") String message,
+                      @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Soma uma resposta ao contador, avança a data da última resposta e incrementa a versão (ETag)
+     * Respostas concorrentes serializam no lock da linha
+     * @param topicId ID do tópico
+     * @param repliedAt data da resposta
+     * @return quantidade de linhas alteradas (0 se o tópico não existir)
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Topic t SET t.replyCount = t.replyCount + 1, " +
+            "t.lastReplyAt = CASE WHEN t.lastReplyAt IS NULL OR t.lastReplyAt < :repliedAt " +
+            "THEN :repliedAt ELSE t.lastReplyAt END, " +
+            "t.version = t.version + 1 WHERE t.id = :topicId")
+    int replyAdded(@Param("topicId") Long topicId, @Param("repliedAt") LocalDateTime repliedAt);
+
+    /**
+     * Versão atual do tópico (ETag)
+     * @param topicId ID do tópico
+     * @return Optional<Long>
+     */
+    @Query("SELECT t.version FROM Topic t WHERE t.id = :topicId")
+    Optional<Long> findVersionById(@Param("topicId") Long topicId);
+
+    /**
+     * Remove o tópico sem carregar a entidade
+     * @param topicId ID do tópico
+     * @return quantidade de linhas removidas
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Topic t WHERE t.id = :topicId")
+    int deleteByIdReturningCount(@Param("topicId") Long topicId);
+
+    /**
+     * Move o tópico para outro curso
+     * Deve ser chamado na transação que já travou a linha do tópico (UPDATE condicional do TopicService),
+     * que também já incrementou a versão do tópico
+     * @param topicId ID do tópico
+     * @param course novo curso
+     * @return quantidade de linhas alteradas
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Topic t SET t.course = :course WHERE t.id = :topicId")
+    int moveToCourse(@Param("topicId") Long topicId, @Param("course") Course course);
+
+    /**
+     * Tópicos com mais visualizações gravadas (sem COUNT)
+     * @param pageable quantidade de tópicos
+     * @return List<Topic>
+     */
+    @EntityGraph(attributePaths = {"author", "course"})
+    List<Topic> findAllByOrderByViewCountDescIdDesc(Pageable pageable);
+
     /**
      * Conta tópicos por curso
      * @param courseName nome do curso
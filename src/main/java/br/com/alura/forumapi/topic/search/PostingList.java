@@ -0,0 +1,145 @@
+package br.com.alura.forumapi.topic.search;
+
+import java.util.Arrays;
+
+/**
+ * Lista de ocorrências (posting list) de um termo, comprimida em memória.
+ *
+ * Os IDs dos tópicos (long) ficam ordenados e são gravados como deltas em varint,
+ * seguidos da frequência do termo no tópico. Como os IDs costumam ser crescentes,
+ * novos tópicos entram no final (append), sem regravar a lista.
+ * Não é thread-safe: o acesso é controlado pelo {@link TopicSearchIndex}.
+ */
+final class PostingList {
+
+    @FunctionalInterface
+    interface PostingConsumer {
+        void accept(long docId, int termFrequency);
+    }
+
+    private byte[] data = new byte[8];
+    private int length;
+    private int size;
+    private long lastDocId;
+
+    /**
+     * Adiciona (ou substitui) a ocorrência de um tópico
+     * @param docId ID do tópico
+     * @param termFrequency frequência do termo no tópico
+     */
+    void add(long docId, int termFrequency) {
+        if (size == 0 || docId > lastDocId) {
+            append(docId, termFrequency);
+            return;
+        }
+
+        long[] docIds = new long[size + 1];
+        int[] frequencies = new int[size + 1];
+        int[] count = {0};
+        int[] inserted = {0};
+        forEach((currentDocId, currentFrequency) -> {
+            if (inserted[0] == 0 && docId <= currentDocId) {
+                docIds[count[0]] = docId;
+                frequencies[count[0]++] = termFrequency;
+                inserted[0] = 1;
+                if (docId == currentDocId) {
+                    return;
+                }
+            }
+            docIds[count[0]] = currentDocId;
+            frequencies[count[0]++] = currentFrequency;
+        });
+        rewrite(docIds, frequencies, count[0]);
+    }
+
+    /**
+     * Remove a ocorrência de um tópico, se existir
+     * @param docId ID do tópico
+     */
+    void remove(long docId) {
+        long[] docIds = new long[size];
+        int[] frequencies = new int[size];
+        int[] count = {0};
+        forEach((currentDocId, currentFrequency) -> {
+            if (currentDocId != docId) {
+                docIds[count[0]] = currentDocId;
+                frequencies[count[0]++] = currentFrequency;
+            }
+        });
+        if (count[0] != size) {
+            rewrite(docIds, frequencies, count[0]);
+        }
+    }
+
+    /**
+     * Percorre as ocorrências em ordem crescente de ID
+     * @param consumer callback que recebe (ID do tópico, frequência)
+     */
+    void forEach(PostingConsumer consumer) {
+        int position = 0;
+        long docId = 0;
+        while (position < length) {
+            long delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                delta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+
+            int termFrequency = 0;
+            shift = 0;
+            do {
+                b = data[position++];
+                termFrequency |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+
+            docId += delta;
+            consumer.accept(docId, termFrequency);
+        }
+    }
+
+    /**
+     * Número de tópicos que contêm o termo (document frequency)
+     * @return quantidade de ocorrências
+     */
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void append(long docId, int termFrequency) {
+        long delta = size == 0 ? docId : docId - lastDocId;
+        writeVarLong(delta);
+        writeVarLong(termFrequency);
+        lastDocId = docId;
+        size++;
+    }
+
+    private void rewrite(long[] docIds, int[] frequencies, int count) {
+        data = new byte[Math.max(8, length)];
+        length = 0;
+        size = 0;
+        lastDocId = 0;
+        for (int i = 0; i < count; i++) {
+            append(docIds[i], frequencies[i]);
+        }
+    }
+
+    // Até 10 bytes por valor: deltas pequenos (o caso comum) continuam ocupando 1 ou 2 bytes
+    private void writeVarLong(long value) {
+        if (length + 10 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 10));
+        }
+        while ((value & ~0x7FL) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+}
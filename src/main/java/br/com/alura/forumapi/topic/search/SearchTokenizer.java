@@ -0,0 +1,56 @@
+package br.com.alura.forumapi.topic.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Quebra textos em termos para o índice de busca:
+ * remove acentos (ex.: "configuração" -> "configuracao"), converte para minúsculas
+ * e descarta stopwords comuns do português.
+ */
+final class SearchTokenizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "a", "o", "as", "os", "e", "de", "da", "do", "das", "dos",
+            "em", "na", "no", "nas", "nos", "um", "uma", "uns", "umas",
+            "para", "pra", "por", "com", "sem", "que", "se", "ao", "aos", "ou"
+    );
+
+    private SearchTokenizer() {}
+
+    /**
+     * Normaliza um texto: sem acentos e em minúsculas
+     * @param text texto original
+     * @return texto normalizado
+     */
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Extrai os termos de um texto, na ordem em que aparecem (com repetições)
+     * @param text texto original (pode ser null)
+     * @return lista de termos
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+
+        for (String token : SEPARATORS.split(normalize(text))) {
+            if (!token.isEmpty() && !STOPWORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
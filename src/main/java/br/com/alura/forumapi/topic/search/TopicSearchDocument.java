@@ -0,0 +1,44 @@
+package br.com.alura.forumapi.topic.search;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dados mínimos de um tópico necessários para indexação
+ * (usado na reconstrução do índice sem carregar entidades completas)
+ */
+public class TopicSearchDocument {
+
+    private final Long id;
+    private final String title;
+    private final String message;
+    private final String courseName;
+    private final LocalDateTime createdAt;
+
+    public TopicSearchDocument(Long id, String title, String message, String courseName, LocalDateTime createdAt) {
+        this.id = id;
+        this.title = title;
+        this.message = message;
+        this.courseName = courseName;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,373 @@
+package br.com.alura.forumapi.topic.search;
+
+import br.com.alura.forumapi.topic.entity.Topic;
+import br.com.alura.forumapi.topic.repository.TopicRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido em memória para a busca de tópicos por título e mensagem.
+ *
+ * Substitui o LIKE '%texto%' (full scan a cada busca) por consultas a posting lists
+ * comprimidas. O índice é reconstruído a partir do banco na inicialização e mantido
+ * incrementalmente pelo TopicService a cada criação, atualização e remoção.
+ *
+ * Semântica da busca: todos os termos da consulta precisam aparecer no tópico (AND)
+ * e o último termo também casa por prefixo, para atender buscas enquanto o usuário digita
+ * (com as completações mais frequentes primeiro, limitadas a MAX_PREFIX_EXPANSIONS).
+ * Consultas sem nenhum termo indexável (só stopwords ou pontuação) não são atendidas pelo índice:
+ * {@link #canSearch} indica quando usar o LIKE no banco.
+ * O ranking usa TF-IDF, com peso maior para termos do título. Para a paginação por cursor,
+ * {@link #searchByRecency} devolve os mesmos tópicos na ordem (createdAt, id) das listagens.
+ */
+@Component
+public class TopicSearchIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final double PREFIX_MATCH_WEIGHT = 0.5;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private static final Comparator<IndexedTopic> RECENT_FIRST = Comparator
+            .comparing((IndexedTopic topic) -> topic.createdAt)
+            .thenComparingLong(topic -> topic.topicId)
+            .reversed();
+
+    // Menos frequente primeiro (o topo do heap é o descartado); empate: termo maior em ordem alfabética
+    private static final Comparator<Map.Entry<String, PostingList>> BY_DOCUMENT_FREQUENCY = Comparator
+            .comparingInt((Map.Entry<String, PostingList> entry) -> entry.getValue().size())
+            .thenComparing(Map.Entry::getKey, Comparator.reverseOrder());
+
+    private final TopicRepository topicRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<Long, IndexedTopic> documents = new HashMap<>();
+
+    // Não nulo durante a reconstrução: remoções feitas depois da leitura de um lote no banco
+    // não podem ser reindexadas pelo lote (o tópico voltaria como "fantasma")
+    private Set<Long> removedDuringRebuild;
+
+    // Falso até a primeira reconstrução terminar: antes disso o índice pode estar vazio ou incompleto
+    private volatile boolean ready;
+
+    public TopicSearchIndex(TopicRepository topicRepository) {
+        this.topicRepository = topicRepository;
+    }
+
+    /**
+     * Reconstrói o índice a partir do banco, em lotes por ID (keyset)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            removedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            Long lastId = 0L;
+            List<TopicSearchDocument> batch;
+            do {
+                batch = topicRepository.findSearchDocumentsAfter(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                lock.writeLock().lock();
+                try {
+                    for (TopicSearchDocument document : batch) {
+                        // Escritas e remoções feitas durante a reconstrução são mais recentes: prevalecem
+                        if (!documents.containsKey(document.getId())
+                                && !removedDuringRebuild.contains(document.getId())) {
+                            indexDocument(document);
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            ready = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                removedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Indica se o índice pode atender uma busca: reconstrução concluída e ao menos um termo indexável
+     * (uma consulta só com stopwords, como "de para", não teria termos e voltaria vazia)
+     * @param query texto de busca
+     * @return true se a busca deve usar o índice; false para usar o LIKE no banco
+     */
+    public boolean canSearch(String query) {
+        return ready && !SearchTokenizer.tokenize(query).isEmpty();
+    }
+
+    /**
+     * Indica se a reconstrução inicial terminou (o Tomcat já aceita requisições antes disso)
+     * @return true se o índice contém todos os tópicos
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Indexa (ou reindexa) um tópico
+     * @param topic tópico persistido
+     */
+    public void index(Topic topic) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(topic.getId());
+            indexDocument(new TopicSearchDocument(topic.getId(), topic.getTitle(), topic.getMessage(),
+                    topic.getCourse().getName(), topic.getCreatedAt()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexa um tópico gravado sem passar pela entidade (ex.: importação em lote)
+     * @param document dados do tópico
+     */
+    public void index(TopicSearchDocument document) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(document.getId());
+            indexDocument(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove um tópico do índice
+     * @param topicId ID do tópico
+     */
+    public void remove(Long topicId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(topicId);
+            if (removedDuringRebuild != null) {
+                removedDuringRebuild.add(topicId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca tópicos ordenados por relevância
+     * @param query texto de busca
+     * @param courseName filtro por curso (opcional)
+     * @return IDs dos tópicos, do mais relevante para o menos relevante
+     */
+    public List<Long> search(String query, String courseName) {
+        List<String> tokens = SearchTokenizer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Double> scores;
+        lock.readLock().lock();
+        try {
+            scores = score(tokens);
+            if (courseName != null) {
+                scores.keySet().removeIf(docId -> !courseName.equals(documents.get(docId).courseName));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())));
+
+        List<Long> topicIds = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Double> entry : ranked) {
+            topicIds.add(entry.getKey());
+        }
+        return topicIds;
+    }
+
+    /**
+     * Busca tópicos ordenados do mais recente para o mais antigo, por (createdAt, id), como o keyset
+     * das listagens: não depende de os IDs crescerem com createdAt (importações, sequences em blocos)
+     * @param query texto de busca
+     * @param courseName filtro por curso (opcional)
+     * @param afterCreatedAt createdAt do último tópico da página anterior (null na primeira página)
+     * @param afterId ID do último tópico da página anterior (null na primeira página)
+     * @param limit quantidade máxima de IDs
+     * @return IDs dos tópicos, do mais recente para o mais antigo
+     */
+    public List<Long> searchByRecency(String query, String courseName,
+                                      LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        List<String> tokens = SearchTokenizer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        List<IndexedTopic> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Long docId : score(tokens).keySet()) {
+                IndexedTopic topic = documents.get(docId);
+                if ((courseName == null || courseName.equals(topic.courseName))
+                        && (afterId == null || isBefore(topic, afterCreatedAt, afterId))) {
+                    matches.add(topic);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(RECENT_FIRST);
+        List<Long> topicIds = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < Math.min(limit, matches.size()); i++) {
+            topicIds.add(matches.get(i).topicId);
+        }
+        return topicIds;
+    }
+
+    private static boolean isBefore(IndexedTopic topic, LocalDateTime createdAt, long id) {
+        int comparison = topic.createdAt.compareTo(createdAt);
+        return comparison < 0 || (comparison == 0 && topic.topicId < id);
+    }
+
+    private Map<Long, Double> score(List<String> tokens) {
+        int totalDocuments = Math.max(1, documents.size());
+        Map<Long, Double> scores = null;
+
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            boolean lastToken = i == tokens.size() - 1;
+            Map<Long, Double> tokenScores = new HashMap<>();
+
+            if (lastToken) {
+                PostingList exact = postings.get(token);
+                if (exact != null) {
+                    accumulate(exact, 1.0, totalDocuments, tokenScores);
+                }
+                for (PostingList expansion : prefixExpansions(token)) {
+                    accumulate(expansion, PREFIX_MATCH_WEIGHT, totalDocuments, tokenScores);
+                }
+            } else {
+                PostingList postingList = postings.get(token);
+                if (postingList != null) {
+                    accumulate(postingList, 1.0, totalDocuments, tokenScores);
+                }
+            }
+
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                    entry.setValue(entry.getValue() + tokenScores.get(entry.getKey()));
+                }
+            }
+
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    // Completações do prefixo (sem o próprio termo): as MAX_PREFIX_EXPANSIONS presentes em mais tópicos,
+    // e não as primeiras em ordem alfabética, para que um prefixo curto ("p", "co") ainda encontre as
+    // palavras comuns; só as completações raras de prefixos muito curtos ficam de fora
+    private List<PostingList> prefixExpansions(String prefix) {
+        PriorityQueue<Map.Entry<String, PostingList>> mostFrequent = new PriorityQueue<>(BY_DOCUMENT_FREQUENCY);
+        for (Map.Entry<String, PostingList> entry
+                : postings.subMap(prefix, false, prefix + Character.MAX_VALUE, false).entrySet()) {
+            mostFrequent.add(entry);
+            if (mostFrequent.size() > MAX_PREFIX_EXPANSIONS) {
+                mostFrequent.poll();
+            }
+        }
+
+        List<PostingList> expansions = new ArrayList<>(mostFrequent.size());
+        for (Map.Entry<String, PostingList> entry : mostFrequent) {
+            expansions.add(entry.getValue());
+        }
+        return expansions;
+    }
+
+    private void accumulate(PostingList postingList, double weight, int totalDocuments,
+                            Map<Long, Double> tokenScores) {
+        double idf = Math.log(1.0 + (double) totalDocuments / postingList.size());
+        postingList.forEach((docId, termFrequency) ->
+                tokenScores.merge(docId, weight * termFrequency * idf, Double::sum));
+    }
+
+    private void indexDocument(TopicSearchDocument document) {
+        long docId = document.getId();
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : SearchTokenizer.tokenize(document.getTitle())) {
+            frequencies.merge(token, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String token : SearchTokenizer.tokenize(document.getMessage())) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new PostingList())
+                    .add(docId, entry.getValue());
+        }
+        documents.put(docId, new IndexedTopic(docId, frequencies.keySet().toArray(new String[0]),
+                document.getCourseName(), document.getCreatedAt()));
+    }
+
+    private void removeDocument(long docId) {
+        IndexedTopic existing = documents.remove(docId);
+        if (existing == null) {
+            return;
+        }
+
+        for (String term : existing.terms) {
+            PostingList postingList = postings.get(term);
+            if (postingList != null) {
+                postingList.remove(docId);
+                if (postingList.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static final class IndexedTopic {
+        private final long topicId;
+        private final String[] terms;
+        private final String courseName;
+        private final LocalDateTime createdAt;
+
+        private IndexedTopic(long topicId, String[] terms, String courseName, LocalDateTime createdAt) {
+            this.topicId = topicId;
+            this.terms = terms;
+            this.courseName = courseName;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package br.com.alura.forumapi.topic.service;
+
+import br.com.alura.forumapi.course.entity.Course;
+import br.com.alura.forumapi.course.service.CourseService;
+import br.com.alura.forumapi.topic.entity.Topic;
+import br.com.alura.forumapi.topic.repository.TopicRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Fila de ingestão de tópicos novos, gravados em lote por uma thread própria.
+ *
+ * Em rajadas de criação, cada requisição entra na fila e aguarda o commit do lote em que foi
+ * gravada; a thread de escrita junta o que estiver na fila (até {@code batchSize}) e grava tudo
+ * em uma transação: INSERTs em lote (IDs da sequence, hibernate.jdbc.batch_size) e um único
+ * UPDATE de contador por curso. A resposta só sai depois do commit, com o ID definitivo.
+ * Com a fila cheia (ou a ingestão desativada) o chamador grava de forma síncrona.
+ *
+ * A espera pela thread de escrita é limitada (topics.ingestion.await-timeout-ms): um tópico que ela
+ * ainda não pegou é retirado da fila e gravado pelo chamador. Cada tópico é "reivindicado" uma única vez
+ * (pela thread de escrita ou pelo chamador), então nunca é gravado duas vezes; um tópico já reivindicado
+ * pela thread de escrita é aguardado até o fim do lote. Se a thread de escrita
+ * terminar, por encerramento ou por um erro, os tópicos ainda na fila voltam para os chamadores.
+ */
+@Component
+public class TopicIngestionQueue {
+
+    private final TopicRepository topicRepository;
+    private final CourseService courseService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long awaitTimeoutMillis;
+    private final BlockingQueue<PendingTopic> queue;
+    private final Thread writer;
+    private final DistributionSummary batchSizes;
+    private final Counter fallbacks;
+
+    private volatile boolean running;
+
+    public TopicIngestionQueue(TopicRepository topicRepository,
+                               CourseService courseService,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${topics.ingestion.enabled:false}") boolean enabled,
+                               @Value("${topics.ingestion.queue-capacity:10000}") int queueCapacity,
+                               @Value("${topics.ingestion.batch-size:50}") int batchSize,
+                               @Value("${topics.ingestion.await-timeout-ms:5000}") long awaitTimeoutMillis) {
+        this.topicRepository = topicRepository;
+        this.courseService = courseService;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.awaitTimeoutMillis = awaitTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.batchSizes = DistributionSummary.builder("topics.ingestion.batch.size")
+                .description("Tópicos gravados por lote da fila de ingestão")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("topics.ingestion.fallback")
+                .description("Tópicos gravados de forma síncrona por fila cheia, parada ou sem resposta no prazo")
+                .register(meterRegistry);
+        Gauge.builder("topics.ingestion.queue.size", queue, BlockingQueue::size)
+                .description("Tópicos aguardando gravação")
+                .register(meterRegistry);
+
+        this.writer = new Thread(this::writeLoop, "topic-ingestion");
+        this.writer.setDaemon(true);
+        if (enabled) {
+            running = true;
+            writer.start();
+        }
+    }
+
+    /**
+     * Grava um tópico novo pela fila, aguardando o commit do lote em que entrou
+     * @param topic tópico ainda não gravado (com autor e curso)
+     * @param synchronousSave gravação na própria requisição, usada com a ingestão desativada, a fila
+     *                        cheia ou parada, ou quando a thread de escrita não pega o tópico no prazo
+     * @return Topic gravado
+     */
+    public Topic save(Topic topic, Supplier<Topic> synchronousSave) {
+        if (!running) {
+            return synchronousSave.get();
+        }
+
+        PendingTopic pending = new PendingTopic(topic, new CompletableFuture<>(), new AtomicBoolean());
+        if (!queue.offer(pending)) {
+            fallbacks.increment();
+            return synchronousSave.get();
+        }
+        // A fila parou entre a leitura de running e o offer: ninguém mais vai drená-la
+        if (!running && pending.claim()) {
+            fallbacks.increment();
+            return synchronousSave.get();
+        }
+        return await(pending, synchronousSave);
+    }
+
+    /**
+     * Para de aceitar tópicos e grava o que ainda estiver na fila
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        // Sem interrupt: a thread pode estar no meio de uma escrita no banco
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+
+        // Enfileirados depois da última volta da thread de escrita: gravados pelos próprios chamadores
+        releaseQueued();
+    }
+
+    private Topic await(PendingTopic pending, Supplier<Topic> synchronousSave) {
+        try {
+            Topic saved = result(pending);
+            if (saved != null) {
+                return saved;
+            }
+
+            // A thread de escrita não pegou o tópico no prazo: retira da fila e grava aqui
+            if (pending.claim()) {
+                fallbacks.increment();
+                return synchronousSave.get();
+            }
+
+            // Já faz parte de um lote sendo gravado: aguarda o commit sem prazo. A thread de escrita sempre
+            // completa o lote (gravado, falha de um tópico ou thread encerrada); desistir aqui responderia
+            // erro para um tópico que ainda pode ser gravado, e uma nova tentativa do cliente o duplicaria
+            return committedResult(pending);
+        } catch (NotWrittenException e) {
+            fallbacks.increment();
+            return synchronousSave.get();
+        }
+    }
+
+    // Resultado do lote, ou null se o prazo acabar
+    private Topic result(PendingTopic pending) {
+        try {
+            return pending.result().get(awaitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (ExecutionException e) {
+            throw failure(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando a gravação do tópico", e);
+        }
+    }
+
+    // Resultado de um lote já reivindicado pela thread de escrita
+    private Topic committedResult(PendingTopic pending) {
+        try {
+            return pending.result().get();
+        } catch (ExecutionException e) {
+            throw failure(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando a gravação do tópico", e);
+        }
+    }
+
+    private static RuntimeException failure(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException cause) {
+            return cause;
+        }
+        return new IllegalStateException("Falha na gravação do tópico", e.getCause());
+    }
+
+    private void writeLoop() {
+        List<PendingTopic> batch = new ArrayList<>(batchSize);
+        try {
+            // Ao encerrar, continua até esvaziar a fila
+            while (running || !queue.isEmpty()) {
+                PendingTopic first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Sem espera extra: o lote é o que acumulou enquanto o anterior era gravado
+                queue.drainTo(batch, batchSize - 1);
+                // Tópicos cujo chamador desistiu de esperar já foram gravados por ele
+                batch.removeIf(pending -> !pending.claim());
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // A thread terminou (encerramento, interrupção ou um Error em write): nenhum chamador
+            // pode ficar esperando. Novos tópicos passam a ser gravados de forma síncrona
+            running = false;
+            IllegalStateException interrupted = new IllegalStateException("Gravação do tópico interrompida");
+            batch.forEach(pending -> pending.result().completeExceptionally(interrupted));
+            releaseQueued();
+        }
+    }
+
+    // Devolve aos chamadores os tópicos que a thread de escrita não vai mais gravar
+    private void releaseQueued() {
+        List<PendingTopic> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        NotWrittenException notWritten = new NotWrittenException();
+        leftovers.forEach(pending -> pending.result().completeExceptionally(notWritten));
+    }
+
+    private void write(List<PendingTopic> batch) {
+        List<Topic> topics = batch.stream().map(PendingTopic::topic).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                topicRepository.saveAll(topics);
+                countByCourse(topics);
+            });
+        } catch (RuntimeException batchFailure) {
+            // Um tópico inválido não derruba o lote inteiro: grava um a um e falha só o que não passar
+            batch.forEach(this::writeOne);
+            return;
+        }
+
+        batchSizes.record(batch.size());
+        batch.forEach(pending -> pending.result().complete(pending.topic()));
+    }
+
+    private void writeOne(PendingTopic pending) {
+        Topic topic = pending.topic();
+        // A transação do lote foi desfeita, mas o ID já havia sido atribuído ao objeto
+        topic.setId(null);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                topicRepository.save(topic);
+                countByCourse(List.of(topic));
+            });
+            batchSizes.record(1);
+            pending.result().complete(topic);
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    private void countByCourse(List<Topic> topics) {
+        Map<Long, List<Topic>> topicsByCourse = topics.stream()
+                .collect(Collectors.groupingBy(topic -> topic.getCourse().getId()));
+        for (List<Topic> courseTopics : topicsByCourse.values()) {
+            Course course = courseTopics.get(0).getCourse();
+            LocalDateTime lastCreatedAt = courseTopics.stream()
+                    .map(Topic::getCreatedAt)
+                    .max(Comparator.naturalOrder())
+                    .orElseThrow();
+            courseService.topicsAdded(course, courseTopics.size(), lastCreatedAt);
+        }
+    }
+
+    private record PendingTopic(Topic topic, CompletableFuture<Topic> result, AtomicBoolean claimed) {
+
+        // Só quem reivindica o tópico (thread de escrita ou chamador após o prazo) pode gravá-lo
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    // Tópico não gravado pela fila (thread de escrita parada): o chamador grava de forma síncrona
+    private static final class NotWrittenException extends RuntimeException {
+
+        private NotWrittenException() {
+            super("Fila de ingestão parada; tópico não gravado", null, false, false);
+        }
+    }
+}
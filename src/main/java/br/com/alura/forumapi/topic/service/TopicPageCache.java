@@ -0,0 +1,149 @@
+package br.com.alura.forumapi.topic.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache das páginas de listagem de tópicos já serializadas (JSON em UTF-8 e, se compensar, gzip).
+ *
+ * A chave combina a versão da listagem (TopicVersionRegistry) com os parâmetros normalizados da consulta:
+ * uma escrita de tópico muda a versão do curso (e a geral), então as páginas antigas deixam de ser
+ * encontradas sem varredura nem invalidação explícita, e saem do cache pela política de despejo
+ * do Caffeine (W-TinyLFU), limitada pelo total de bytes guardados.
+ */
+@Component
+public class TopicPageCache {
+
+    private final Cache<List<Object>, CachedPage> pages;
+    private final ObjectWriter writer;
+    private final boolean enabled;
+    private final boolean gzip;
+    private final int gzipMinBytes;
+
+    public TopicPageCache(ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${topics.page-cache.enabled:true}") boolean enabled,
+                          @Value("${topics.page-cache.max-bytes:33554432}") long maxBytes,
+                          @Value("${topics.page-cache.gzip:true}") boolean gzip,
+                          @Value("${topics.page-cache.gzip-min-bytes:1024}") int gzipMinBytes) {
+        this.writer = objectMapper.writer();
+        this.enabled = enabled;
+        this.gzip = gzip;
+        this.gzipMinBytes = gzipMinBytes;
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((List<Object> key, CachedPage page) -> page.weight())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "topics.page");
+    }
+
+    /**
+     * Busca a página serializada ou, se ausente, monta, serializa e guarda
+     * Sem trava por chave: requisições simultâneas para a mesma página ausente montam o corpo cada uma
+     * (a consulta ao banco não roda dentro do cache)
+     * @param version versão da listagem no momento da requisição (lida antes da consulta)
+     * @param query parâmetros normalizados da consulta (podem conter null)
+     * @param body monta o corpo da resposta
+     * @return página serializada
+     */
+    public CachedPage get(long version, List<Object> query, Supplier<?> body) {
+        if (!enabled) {
+            return uncached(body);
+        }
+
+        List<Object> key = List.of(version, query);
+        CachedPage page = pages.getIfPresent(key);
+        if (page == null) {
+            page = encode(body.get());
+            pages.put(key, page);
+        }
+        return page;
+    }
+
+    /**
+     * Monta e serializa uma página sem guardá-la (resultado que não pode ser reaproveitado)
+     * @param body monta o corpo da resposta
+     * @return página serializada
+     */
+    public CachedPage uncached(Supplier<?> body) {
+        // Sem cache, comprimir a cada requisição não compensa: só o JSON
+        return new CachedPage(toJson(body.get()), null);
+    }
+
+    /**
+     * @return se as páginas podem ter uma versão gzip (define o Vary: Accept-Encoding)
+     */
+    public boolean isGzipEnabled() {
+        return enabled && gzip;
+    }
+
+    private CachedPage encode(Object body) {
+        byte[] json = toJson(body);
+        return new CachedPage(json, gzip && json.length >= gzipMinBytes ? gzip(json) : null);
+    }
+
+    private byte[] toJson(Object body) {
+        try {
+            return writer.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Corpo de uma página de listagem já codificado
+     */
+    public static final class CachedPage {
+
+        private final byte[] json;
+        private final byte[] gzip;
+
+        private CachedPage(byte[] json, byte[] gzip) {
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        /**
+         * @return JSON em UTF-8
+         */
+        public byte[] getJson() {
+            return json;
+        }
+
+        /**
+         * @return JSON comprimido com gzip, ou null se a página for pequena demais para compensar
+         */
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        private int weight() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+}
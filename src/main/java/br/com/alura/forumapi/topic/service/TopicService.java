@@ -1,22 +1,68 @@
 package br.com.alura.forumapi.topic.service;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import br.com.alura.forumapi.topic.dto.TopicCursor;
+import br.com.alura.forumapi.topic.dto.TopicOwnership;
 import br.com.alura.forumapi.topic.entity.Topic;
 import br.com.alura.forumapi.topic.repository.TopicRepository;
+import br.com.alura.forumapi.topic.search.TopicSearchIndex;
+import br.com.alura.forumapi.topic.stream.TopicEvent;
+import br.com.alura.forumapi.topic.stream.TopicEventBus;
 import br.com.alura.forumapi.user.entity.User;
 import br.com.alura.forumapi.user.service.UserService;
 import br.com.alura.forumapi.course.entity.Course;
 import br.com.alura.forumapi.course.service.CourseService;
+import br.com.alura.forumapi.stats.service.StatsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class TopicService {
 
+    /**
+     * Tamanho máximo de página aceito nas listagens
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Cria a paginação validando os limites (página >= 0 e 1 <= tamanho <= MAX_PAGE_SIZE)
+     * @throws IllegalArgumentException se a página ou o tamanho estiverem fora dos limites
+     */
+    public static Pageable boundedPageRequest(int page, int size) {
+        return boundedPageRequest(page, size, Sort.unsorted());
+    }
+
+    /**
+     * Cria a paginação ordenada validando os limites (página >= 0 e 1 <= tamanho <= MAX_PAGE_SIZE)
+     * @throws IllegalArgumentException se a página ou o tamanho estiverem fora dos limites
+     */
+    public static Pageable boundedPageRequest(int page, int size, Sort sort) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Número da página não pode ser negativo");
+        }
+
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE);
+        }
+
+        return PageRequest.of(page, size, sort);
+    }
+
     @Autowired
     private TopicRepository topicRepository;
 
@@ -26,12 +72,40 @@ public class TopicService {
     @Autowired
     private CourseService courseService;
 
+    @Autowired
+    private TopicSearchIndex topicSearchIndex;
+
+    @Autowired
+    private StatsService statsService;
+
+    @Autowired
+    private TopicVersionRegistry topicVersionRegistry;
+
+    // Escrita do tópico + contadores do curso na mesma transação; índice, versões e
+    // estatísticas em memória só são atualizados após o commit
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TopicIngestionQueue topicIngestionQueue;
+
+    @Autowired
+    private TopicEventBus topicEventBus;
+
+    @Autowired
+    private TopicTrendingIndex topicTrendingIndex;
+
+    @Autowired
+    private TopicViewCounter topicViewCounter;
+
     /**
-     * Lista todos os tópicos ordenados por data de criação (mais recentes primeiro)
+     * Lista os tópicos mais recentes (ordenados por data de criação)
+     * @param limit quantidade desejada (limitada a MAX_PAGE_SIZE)
      * @return List<Topic>
      */
-    public List<Topic> findAll() {
-        return topicRepository.findAllByOrderByCreatedAtDesc();
+    public List<Topic> findRecent(int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return topicRepository.findAllByOrderByCreatedAtDesc(PageRequest.of(0, boundedLimit)).getContent();
     }
 
     /**
@@ -40,29 +114,33 @@ public class TopicService {
      * @return Optional<Topic>
      */
     public Optional<Topic> findById(Long id) {
-        return topicRepository.findById(id);
+        return topicRepository.findWithAuthorAndCourseById(id);
     }
 
     /**
-     * Busca tópicos por nome do curso
-     * @param courseName nome do curso
-     * @return List<Topic>
+     * Busca tópicos por nome do curso com paginação
+     * @param courseName nome do curso (sem diferenciar maiúsculas, como no cadastro de cursos)
+     * @param pageable configuração de paginação
+     * @return Page<Topic>
      */
-    public List<Topic> findByCourse(String courseName) {
-        return topicRepository.findByCourseNameOrderByCreatedAtDesc(courseName);
+    public Page<Topic> findByCourse(String courseName, Pageable pageable) {
+        return storedCourseName(courseName)
+                .map(name -> topicRepository.findByCourseNameOrderByCreatedAtDesc(name, pageable))
+                .orElseGet(() -> Page.empty(pageable));
     }
 
     /**
-     * Busca tópicos por autor
+     * Busca tópicos por autor com paginação
      * @param authorId ID do autor
-     * @return List<Topic>
+     * @param pageable configuração de paginação
+     * @return Page<Topic>
      */
-    public List<Topic> findByAuthor(Long authorId) {
+    public Page<Topic> findByAuthor(Long authorId, Pageable pageable) {
         Optional<User> author = userService.findById(authorId);
         if (author.isPresent()) {
-            return topicRepository.findByAuthorOrderByCreatedAtDesc(author.get());
+            return topicRepository.findByAuthorOrderByCreatedAtDesc(author.get(), pageable);
         }
-        return List.of(); // Lista vazia se autor não existir
+        return Page.empty(pageable); // Página vazia se autor não existir
     }
 
     /**
@@ -96,12 +174,24 @@ public class TopicService {
         }
 
         // Busca ou cria o curso
-        Course course = courseService.createOrGetCourse(courseName, "Curso de " + courseName);
+        Course course = courseService.createOrGetCourse(courseName, "Curso de " + courseName.trim());
 
         // Cria o tópico
         Topic topic = new Topic(title.trim(), message.trim(), author.get(), course);
 
-        return topicRepository.save(topic);
+        // Com a ingestão em lote ativa, aguarda o commit do lote; fila cheia, desativada ou sem resposta
+        // no prazo grava aqui mesmo
+        Topic savedTopic = topicIngestionQueue.save(topic, () -> transactionTemplate.execute(status -> {
+            Topic saved = topicRepository.save(topic);
+            courseService.topicAdded(course, saved.getCreatedAt());
+            return saved;
+        }));
+        topicSearchIndex.index(savedTopic);
+        topicVersionRegistry.topicSaved(savedTopic, null);
+        statsService.topicCreated(course.getName());
+        topicEventBus.publish(TopicEvent.created(savedTopic));
+        topicTrendingIndex.topicCreated(savedTopic);
+        return savedTopic;
     }
 
     /**
@@ -117,35 +207,67 @@ public class TopicService {
      * @throws SecurityException se usuário não tem permissão
      */
     public Topic updateTopic(Long topicId, String title, String message, String courseName, String authorUsername) {
-        // Busca o tópico
-        Optional<Topic> existingTopic = topicRepository.findById(topicId);
-        if (existingTopic.isEmpty()) {
-            throw new IllegalArgumentException("Tópico não encontrado com ID: " + topicId);
-        }
-
-        Topic topic = existingTopic.get();
-
-        // VALIDAÇÃO DE SEGURANÇA: Apenas o autor pode atualizar
-        if (!topic.getAuthor().getUsername().equals(authorUsername)) {
-            throw new SecurityException("Usuário não tem permissão para atualizar este tópico");
+        String newTitle = (title != null && !title.trim().isEmpty()) ? title.trim() : null;
+        String newMessage = (message != null && !message.trim().isEmpty()) ? message.trim() : null;
+        boolean changeCourse = courseName != null && !courseName.trim().isEmpty();
+
+        // Nada a alterar: apenas valida permissão e devolve o tópico atual
+        if (newTitle == null && newMessage == null && !changeCourse) {
+            checkOwnership(topicId, authorUsername, "atualizar");
+            return findExisting(topicId);
         }
 
-        // Validações dos dados
-        if (title != null && !title.trim().isEmpty()) {
-            topic.setTitle(title.trim());
+        LocalDateTime now = Topic.now();
+        Topic savedTopic;
+        String oldCourseName = null;
+        if (changeCourse) {
+            String newCourseName = courseName.trim();
+            String[] previousCourseName = new String[1];
+            savedTopic = transactionTemplate.execute(status -> {
+                // O UPDATE condicional valida a permissão e trava a linha do tópico; o curso lido em seguida
+                // não muda até o commit, então os contadores são ajustados no curso certo
+                Topic topic = updateIfOwner(topicId, authorUsername, newTitle, newMessage, now);
+                if (topic == null) {
+                    return null;
+                }
+
+                String currentCourseName = topic.getCourse().getName();
+                Course newCourse = courseService.createOrGetCourse(newCourseName, "Curso de " + newCourseName);
+                if (newCourse.getName().equals(currentCourseName)) {
+                    courseService.topicActivity(topicId, now);
+                } else {
+                    topicRepository.moveToCourse(topicId, newCourse);
+                    courseService.topicRemoved(currentCourseName);
+                    courseService.topicAdded(newCourse, now);
+                    topic.setCourse(newCourse);
+                    previousCourseName[0] = currentCourseName;
+                }
+                return topic;
+            });
+            oldCourseName = previousCourseName[0];
+        } else {
+            // Caso comum: a permissão é validada no próprio UPDATE (WHERE id = ? AND autor = ?)
+            savedTopic = transactionTemplate.execute(status -> {
+                Topic topic = updateIfOwner(topicId, authorUsername, newTitle, newMessage, now);
+                if (topic != null) {
+                    courseService.topicActivity(topicId, now);
+                }
+                return topic;
+            });
         }
 
-        if (message != null && !message.trim().isEmpty()) {
-            topic.setMessage(message.trim());
+        if (savedTopic == null) {
+            throw notFoundOrForbidden(topicId, "atualizar");
         }
 
-        // Atualiza o curso se especificado
-        if (courseName != null && !courseName.trim().isEmpty()) {
-            Course newCourse = courseService.createOrGetCourse(courseName.trim(), "Curso de " + courseName.trim());
-            topic.setCourse(newCourse);
+        topicSearchIndex.index(savedTopic);
+        topicVersionRegistry.topicSaved(savedTopic, oldCourseName);
+        if (oldCourseName != null) {
+            statsService.topicMoved(oldCourseName, savedTopic.getCourse().getName());
         }
-
-        return topicRepository.save(topic);
+        topicEventBus.publish(TopicEvent.updated(savedTopic, oldCourseName));
+        topicTrendingIndex.topicUpdated(savedTopic);
+        return savedTopic;
     }
 
     /**
@@ -157,20 +279,25 @@ public class TopicService {
      * @throws SecurityException se usuário não tem permissão
      */
     public void deleteTopic(Long topicId, String authorUsername) {
-        // Busca o tópico
-        Optional<Topic> existingTopic = topicRepository.findById(topicId);
-        if (existingTopic.isEmpty()) {
-            throw new IllegalArgumentException("Tópico não encontrado com ID: " + topicId);
-        }
-
-        Topic topic = existingTopic.get();
-
-        // VALIDAÇÃO DE SEGURANÇA: Apenas o autor pode deletar
-        if (!topic.getAuthor().getUsername().equals(authorUsername)) {
-            throw new SecurityException("Usuário não tem permissão para deletar este tópico");
-        }
-
-        topicRepository.delete(topic);
+        // A leitura do autor e do curso trava a linha: o curso usado nas estatísticas é o da linha removida
+        String courseName = transactionTemplate.execute(status -> {
+            TopicOwnership ownership = topicRepository.findOwnershipForUpdateById(topicId)
+                    .orElseThrow(() -> new IllegalArgumentException("Tópico não encontrado com ID: " + topicId));
+            if (!ownership.getAuthorUsername().equals(authorUsername)) {
+                throw new SecurityException("Usuário não tem permissão para deletar este tópico");
+            }
+
+            topicRepository.deleteByIdReturningCount(topicId);
+            courseService.topicRemoved(ownership.getCourseName());
+            return ownership.getCourseName();
+        });
+
+        topicSearchIndex.remove(topicId);
+        topicVersionRegistry.topicDeleted(topicId, courseName, authorUsername);
+        statsService.topicDeleted(courseName);
+        topicEventBus.publish(TopicEvent.deleted(topicId, courseName));
+        topicTrendingIndex.topicDeleted(topicId);
+        topicViewCounter.topicDeleted(topicId);
     }
 
     /**
@@ -180,13 +307,52 @@ public class TopicService {
      * @return true se o tópico pertence ao usuário, false caso contrário
      */
     public boolean isTopicOwner(Long topicId, String authorUsername) {
-        Optional<User> author = userService.findByUsername(authorUsername);
-        if (author.isEmpty()) {
-            return false;
+        return topicRepository.existsByIdAndAuthorUsername(topicId, authorUsername);
+    }
+
+    /**
+     * VALIDAÇÃO DE SEGURANÇA: Apenas o autor pode alterar o tópico
+     * Lê apenas autor e curso (sem carregar a entidade)
+     * @throws IllegalArgumentException se tópico não for encontrado
+     * @throws SecurityException se usuário não tem permissão
+     */
+    private TopicOwnership checkOwnership(Long topicId, String authorUsername, String action) {
+        TopicOwnership ownership = topicRepository.findOwnershipById(topicId)
+                .orElseThrow(() -> new IllegalArgumentException("Tópico não encontrado com ID: " + topicId));
+
+        if (!ownership.getAuthorUsername().equals(authorUsername)) {
+            throw new SecurityException("Usuário não tem permissão para " + action + " este tópico");
+        }
+        return ownership;
+    }
+
+    /**
+     * Diferencia "não encontrado" de "sem permissão" quando uma escrita condicional não altera linhas
+     * Só é executado no caminho de erro
+     */
+    private RuntimeException notFoundOrForbidden(Long topicId, String action) {
+        if (!topicRepository.existsById(topicId)) {
+            return new IllegalArgumentException("Tópico não encontrado com ID: " + topicId);
         }
+        return new SecurityException("Usuário não tem permissão para " + action + " este tópico");
+    }
+
+    /**
+     * Atualiza título e/ou mensagem somente se o tópico pertencer ao usuário (UPDATE condicional)
+     * e lê o tópico gravado, com autor e curso, na mesma transação
+     * Deve ser chamado dentro de uma transação (a linha fica travada até o commit)
+     * @return Topic gravado ou null se nenhuma linha foi alterada
+     */
+    private Topic updateIfOwner(Long topicId, String username, String title, String message, LocalDateTime updatedAt) {
+        if (topicRepository.updateIfOwner(topicId, username, title, message, updatedAt) == 0) {
+            return null;
+        }
+        return findExisting(topicId);
+    }
 
-        Optional<Topic> topic = topicRepository.findByIdAndAuthorId(topicId, author.get().getId());
-        return topic.isPresent();
+    private Topic findExisting(Long topicId) {
+        return topicRepository.findWithAuthorAndCourseById(topicId)
+                .orElseThrow(() -> new IllegalArgumentException("Tópico não encontrado com ID: " + topicId));
     }
 
     /**
@@ -203,27 +369,117 @@ public class TopicService {
      * @return número de tópicos do curso
      */
     public long countTopicsByCourse(String courseName) {
-        return topicRepository.findByCourseNameOrderByCreatedAtDesc(courseName).size();
+        return courseService.countTopics(courseName);
     }
 
     /**
      * Busca tópicos com filtros e paginação
+     * Quando há texto de busca, os resultados vêm do índice invertido, ordenados por relevância;
+     * enquanto o índice é reconstruído na inicialização, ou se a busca só tiver stopwords, usa o LIKE no banco
      * @param pageable configuração de paginação
-     * @param courseName filtro por curso (opcional)
+     * @param courseName filtro por curso (opcional; sem diferenciar maiúsculas)
      * @param searchText filtro por texto (opcional)
      * @return Page<Topic>
      */
-    public Page<Topic> findAllWithFilters(Pageable pageable, String courseName, String searchText) {
-        return topicRepository.findWithFilters(courseName, searchText, pageable);
+    public Page<Topic> findAllWithFilters(Pageable pageable, String requestedCourseName, String searchText) {
+        String courseName = null;
+        if (requestedCourseName != null) {
+            Optional<String> storedName = storedCourseName(requestedCourseName);
+            if (storedName.isEmpty()) {
+                return Page.empty(pageable);
+            }
+            courseName = storedName.get();
+        }
+
+        if (searchText != null && topicSearchIndex.canSearch(searchText)) {
+            List<Long> rankedIds = topicSearchIndex.search(searchText, courseName);
+            int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+            int to = Math.min(from + pageable.getPageSize(), rankedIds.size());
+            return new PageImpl<>(findAllByIdInOrder(rankedIds.subList(from, to)), pageable, rankedIds.size());
+        }
+
+        String text = (searchText == null || searchText.isBlank()) ? null : searchText;
+        return topicRepository.findWithFilters(courseName, text, pageable);
     }
 
     /**
-     * Busca tópicos por username do autor
-     * @param username username do autor
+     * Busca tópicos com filtros usando paginação por keyset (cursor)
+     * Não executa COUNT e não descarta linhas de páginas anteriores
+     * Como em findAllWithFilters, a busca usa o LIKE no banco quando o índice não pode atendê-la
+     * @param size tamanho da página
+     * @param courseName filtro por curso (opcional; sem diferenciar maiúsculas)
+     * @param searchText filtro por texto (opcional)
+     * @param after cursor da página anterior (null para a primeira página)
+     * @return Slice<Topic>
+     */
+    public Slice<Topic> findSliceWithFilters(int size, String requestedCourseName, String searchText, TopicCursor after) {
+        Pageable pageable = PageRequest.of(0, size);
+
+        String courseName = null;
+        if (requestedCourseName != null) {
+            Optional<String> storedName = storedCourseName(requestedCourseName);
+            if (storedName.isEmpty()) {
+                return new SliceImpl<>(List.of(), pageable, false);
+            }
+            courseName = storedName.get();
+        }
+
+        // Com texto de busca, usa o índice na mesma ordem (createdAt, id) do keyset abaixo
+        if (searchText != null && topicSearchIndex.canSearch(searchText)) {
+            List<Long> matchingIds = topicSearchIndex.searchByRecency(searchText, courseName,
+                    after != null ? after.getCreatedAt() : null, after != null ? after.getId() : null, size + 1);
+            List<Long> pageIds = matchingIds.subList(0, Math.min(size, matchingIds.size()));
+            return new SliceImpl<>(findAllByIdInOrder(pageIds), pageable, matchingIds.size() > size);
+        }
+
+        String text = (searchText == null || searchText.isBlank()) ? null : searchText;
+        if (after == null) {
+            return topicRepository.findFirstSliceWithFilters(courseName, text, pageable);
+        }
+
+        return topicRepository.findSliceWithFiltersAfter(
+                courseName, text, after.getCreatedAt(), after.getId(), pageable);
+    }
+
+    /**
+     * Nome do curso como está gravado
+     * Os filtros por curso seguem a regra do cadastro (e do stream de eventos): ignoram maiúsculas e
+     * espaços nas pontas; as consultas e o índice de busca comparam com o nome gravado
+     * @param courseName nome informado na requisição
+     * @return Optional<String> vazio se o curso não existir
+     */
+    private Optional<String> storedCourseName(String courseName) {
+        return courseService.findByName(courseName).map(Course::getName);
+    }
+
+    /**
+     * Carrega tópicos pelos IDs preservando a ordem recebida
+     * @param ids IDs dos tópicos
      * @return List<Topic>
      */
-    public List<Topic> findByAuthorUsername(String username) {
-        return topicRepository.findByAuthorUsernameOrderByCreatedAtDesc(username);
+    private List<Topic> findAllByIdInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Topic> topicsById = topicRepository.findByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(Topic::getId, Function.identity()));
+
+        return ids.stream()
+                .map(topicsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Busca tópicos por username do autor com paginação
+     * @param username username do autor
+     * @param pageable configuração de paginação
+     * @return Page<Topic>
+     */
+    public Page<Topic> findByAuthorUsername(String username, Pageable pageable) {
+        return topicRepository.findByAuthorUsernameOrderByCreatedAtDesc(username, pageable);
     }
 
     }
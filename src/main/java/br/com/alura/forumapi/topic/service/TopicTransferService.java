@@ -0,0 +1,387 @@
+package br.com.alura.forumapi.topic.service;
+
+import br.com.alura.forumapi.course.entity.Course;
+import br.com.alura.forumapi.course.service.CourseService;
+import br.com.alura.forumapi.stats.service.StatsService;
+import br.com.alura.forumapi.topic.dto.TopicImportResult;
+import br.com.alura.forumapi.topic.dto.TopicTransferRecord;
+import br.com.alura.forumapi.topic.entity.Topic;
+import br.com.alura.forumapi.topic.search.TopicSearchDocument;
+import br.com.alura.forumapi.topic.search.TopicSearchIndex;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Exportação e importação de todos os tópicos em NDJSON (um objeto JSON por linha).
+ *
+ * Nenhum dos dois lados carrega o conjunto inteiro em memória: a exportação percorre um cursor
+ * JDBC e escreve cada linha direto na resposta; a importação lê o corpo linha a linha e grava em
+ * lotes JDBC (uma transação por lote), resolvendo autores e cursos por mapas em memória.
+ * Restrito aos usuários listados em admin.usernames.
+ *
+ * Tópicos importados recebem IDs novos da sequence (maiores que os existentes) e mantêm o createdAt
+ * original: o ID não acompanha a data. As listagens e a busca paginam por (createdAt, id), então um
+ * tópico importado aparece na posição da sua data original, e não no topo.
+ */
+@Service
+public class TopicTransferService {
+
+    private static final String EXPORT_SQL = "SELECT t.id, t.title, t.message, t.created_at, t.updated_at, " +
+            "u.username, c.name FROM topics t " +
+            "JOIN users u ON u.id = t.author_id " +
+            "JOIN courses c ON c.id = t.course_id " +
+            "ORDER BY t.id";
+
+    private static final String INSERT_SQL = "INSERT INTO topics " +
+            "(id, title, message, created_at, updated_at, author_id, course_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Cada NEXT VALUE reserva um bloco de IDs, com o mesmo incremento da topics_id_seq (V4) e do Hibernate (pooled-lo)
+    private static final String NEXT_ID_BLOCK_SQL = "SELECT NEXT VALUE FOR topics_id_seq";
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final int MAX_TITLE_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final CourseService courseService;
+    private final StatsService statsService;
+    private final TopicSearchIndex topicSearchIndex;
+    private final TopicVersionRegistry topicVersionRegistry;
+    private final ObjectWriter lineWriter;
+    private final ObjectReader lineReader;
+    private final Set<String> adminUsernames;
+    private final int batchSize;
+    private final int fetchSize;
+
+    public TopicTransferService(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                CourseService courseService,
+                                StatsService statsService,
+                                TopicSearchIndex topicSearchIndex,
+                                TopicVersionRegistry topicVersionRegistry,
+                                ObjectMapper objectMapper,
+                                @Value("${admin.usernames:}") List<String> adminUsernames,
+                                @Value("${topics.transfer.batch-size:1000}") int batchSize,
+                                @Value("${topics.transfer.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.courseService = courseService;
+        this.statsService = statsService;
+        this.topicSearchIndex = topicSearchIndex;
+        this.topicVersionRegistry = topicVersionRegistry;
+        // Sem flush a cada linha: o buffer da resposta decide quando enviar.
+        // Sem separador entre valores (o padrão do Jackson é um espaço): cada linha termina com '\n'
+        this.lineWriter = objectMapper.writerFor(TopicTransferRecord.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
+        this.lineReader = objectMapper.readerFor(TopicTransferRecord.class);
+        this.adminUsernames = adminUsernames.stream()
+                .map(String::trim)
+                .filter(username -> !username.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.batchSize = batchSize;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Verifica se o usuário pode exportar/importar tópicos
+     * @param username usuário autenticado
+     * @throws SecurityException se o usuário não estiver em admin.usernames
+     */
+    public void checkAdmin(String username) {
+        if (!adminUsernames.contains(username)) {
+            throw new SecurityException("Apenas administradores podem exportar ou importar tópicos");
+        }
+    }
+
+    /**
+     * Escreve todos os tópicos, em ordem de ID, como NDJSON
+     * @param outputStream destino (corpo da resposta)
+     * @throws IOException se a escrita falhar (ex.: cliente desconectou)
+     */
+    public void exportTo(OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = lineWriter.createGenerator(outputStream)) {
+            // Transação somente leitura: alguns bancos (ex.: PostgreSQL) só usam cursor com autocommit desligado
+            readOnlyTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                        streamTopics(connection, generator);
+                        return null;
+                    }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Importa tópicos de um corpo NDJSON, em lotes
+     * Linhas inválidas (JSON malformado, campos vazios, autor inexistente) são recusadas sem interromper a importação;
+     * um lote que falha ao gravar (ex.: violação de restrição no banco) é desfeito inteiro e suas linhas são recusadas
+     * como um intervalo, e a importação segue com os próximos lotes; cursos inexistentes são criados
+     * @param inputStream corpo da requisição
+     * @return resumo da importação
+     * @throws IOException se a leitura do corpo falhar
+     */
+    public TopicImportResult importFrom(InputStream inputStream) throws IOException {
+        Map<String, Long> authorIds = loadAuthorIds();
+        IdBlock ids = new IdBlock();
+        TopicImportResult result = new TopicImportResult();
+        List<ImportedTopic> batch = new ArrayList<>(batchSize);
+        long batchFirstLine = 0;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            try {
+                batch.add(toImportedTopic(lineReader.readValue(line), authorIds));
+                if (batch.size() == 1) {
+                    batchFirstLine = lineNumber;
+                }
+            } catch (JsonProcessingException e) {
+                result.rejected(lineNumber, "JSON inválido: " + e.getOriginalMessage());
+                continue;
+            } catch (IllegalArgumentException e) {
+                result.rejected(lineNumber, e.getMessage());
+                continue;
+            }
+
+            if (batch.size() == batchSize) {
+                flush(batch, batchFirstLine, lineNumber, ids, result);
+                batch.clear();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            flush(batch, batchFirstLine, lineNumber, ids, result);
+        }
+        return result;
+    }
+
+    /**
+     * Grava um lote; se a transação falhar, as linhas do lote são recusadas e a importação continua
+     * (os lotes anteriores já foram confirmados e não são desfeitos)
+     */
+    private void flush(List<ImportedTopic> batch, long firstLine, long lastLine,
+                       IdBlock ids, TopicImportResult result) {
+        long[] topicIds;
+        try {
+            topicIds = insert(batch, ids);
+        } catch (RuntimeException e) {
+            result.rejected(firstLine, lastLine, batch.size(), "lote não gravado: " + failureReason(e));
+            return;
+        }
+        result.imported(batch.size());
+        afterCommit(batch, topicIds);
+    }
+
+    private void streamTopics(Connection connection, JsonGenerator generator) throws SQLException {
+        // O H2 materializa o resultado inteiro por padrão; em modo lazy ele é lido conforme o cursor avança
+        boolean h2 = "H2".equals(connection.getMetaData().getDatabaseProductName());
+        if (h2) {
+            setH2LazyExecution(connection, true);
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                EXPORT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(fetchSize);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    TopicTransferRecord record = new TopicTransferRecord(
+                            rs.getLong(1),
+                            rs.getString(2),
+                            rs.getString(3),
+                            rs.getString(6),
+                            rs.getString(7),
+                            toLocalDateTime(rs.getTimestamp(4)),
+                            toLocalDateTime(rs.getTimestamp(5)));
+                    lineWriter.writeValue(generator, record);
+                    generator.writeRaw('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (h2) {
+                setH2LazyExecution(connection, false);
+            }
+        }
+    }
+
+    private static void setH2LazyExecution(Connection connection, boolean lazy) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LAZY_QUERY_EXECUTION " + (lazy ? "TRUE" : "FALSE"));
+        }
+    }
+
+    private Map<String, Long> loadAuthorIds() {
+        Map<String, Long> authorIds = new HashMap<>();
+        jdbcTemplate.query("SELECT id, username FROM users",
+                (RowCallbackHandler) rs -> authorIds.put(rs.getString(2), rs.getLong(1)));
+        return authorIds;
+    }
+
+    private ImportedTopic toImportedTopic(TopicTransferRecord record, Map<String, Long> authorIds) {
+        String title = required(record.getTitle(), "title");
+        String message = required(record.getMessage(), "message");
+        String author = required(record.getAuthor(), "author");
+        String courseName = required(record.getCourse(), "course");
+
+        if (title.length() > MAX_TITLE_LENGTH) {
+            throw new IllegalArgumentException("Título com mais de " + MAX_TITLE_LENGTH + " caracteres");
+        }
+
+        Long authorId = authorIds.get(author);
+        if (authorId == null) {
+            throw new IllegalArgumentException("Autor não encontrado: " + author);
+        }
+
+        Course course = courseService.createOrGetCourse(courseName, "Curso de " + courseName);
+
+        LocalDateTime createdAt = record.getCreatedAt() != null
+                ? record.getCreatedAt().truncatedTo(ChronoUnit.MICROS)
+                : Topic.now();
+        LocalDateTime updatedAt = record.getUpdatedAt() != null
+                ? record.getUpdatedAt().truncatedTo(ChronoUnit.MICROS)
+                : createdAt;
+        return new ImportedTopic(title, message, authorId, author, course, createdAt, updatedAt);
+    }
+
+    private static String required(String value, String field) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Campo obrigatório ausente: " + field);
+        }
+        return value.trim();
+    }
+
+    private long[] insert(List<ImportedTopic> batch, IdBlock ids) {
+        long[] topicIds = new long[batch.size()];
+        for (int i = 0; i < topicIds.length; i++) {
+            topicIds[i] = ids.next();
+        }
+
+        Map<Long, List<ImportedTopic>> topicsByCourse = batch.stream()
+                .collect(Collectors.groupingBy(topic -> topic.course().getId()));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ImportedTopic topic = batch.get(i);
+                    ps.setLong(1, topicIds[i]);
+                    ps.setString(2, topic.title());
+                    ps.setString(3, topic.message());
+                    ps.setTimestamp(4, Timestamp.valueOf(topic.createdAt()));
+                    ps.setTimestamp(5, Timestamp.valueOf(topic.updatedAt()));
+                    ps.setLong(6, topic.authorId());
+                    ps.setLong(7, topic.course().getId());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            });
+
+            topicsByCourse.values().forEach(courseTopics -> courseService.topicsAdded(
+                    courseTopics.get(0).course(), courseTopics.size(), latestCreatedAt(courseTopics)));
+        });
+        return topicIds;
+    }
+
+    // Estruturas em memória só depois do commit, como nas escritas do TopicService
+    private void afterCommit(List<ImportedTopic> batch, long[] topicIds) {
+        for (int i = 0; i < topicIds.length; i++) {
+            ImportedTopic topic = batch.get(i);
+            topicSearchIndex.index(new TopicSearchDocument(
+                    topicIds[i], topic.title(), topic.message(), topic.course().getName(), topic.createdAt()));
+        }
+        Map<String, Long> countsByCourse = batch.stream()
+                .collect(Collectors.groupingBy(topic -> topic.course().getName(), Collectors.counting()));
+        countsByCourse.forEach(statsService::topicsCreated);
+        List<String> courseNames = List.copyOf(countsByCourse.keySet());
+        topicVersionRegistry.topicsImported(courseNames,
+                batch.stream().map(ImportedTopic::authorUsername).distinct().toList());
+    }
+
+    // Só a primeira linha da causa: a mensagem do driver costuma repetir o SQL do lote
+    private static String failureReason(RuntimeException e) {
+        String message = String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        return message.lines().findFirst().orElse(message);
+    }
+
+    private static LocalDateTime latestCreatedAt(List<ImportedTopic> topics) {
+        return topics.stream()
+                .map(ImportedTopic::createdAt)
+                .max(Comparator.naturalOrder())
+                .orElseThrow();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    /**
+     * IDs reservados da sequence, um bloco de ID_BLOCK_SIZE por consulta
+     */
+    private class IdBlock {
+
+        private long next;
+        private long end;
+
+        long next() {
+            if (next == end) {
+                Long start = jdbcTemplate.queryForObject(NEXT_ID_BLOCK_SQL, Long.class);
+                next = start;
+                end = start + ID_BLOCK_SIZE;
+            }
+            return next++;
+        }
+    }
+
+    private record ImportedTopic(String title, String message, long authorId, String authorUsername,
+                                 Course course, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+}
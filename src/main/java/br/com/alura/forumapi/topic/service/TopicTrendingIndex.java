@@ -0,0 +1,320 @@
+package br.com.alura.forumapi.topic.service;
+
+import br.com.alura.forumapi.topic.dto.TopicResponse;
+import br.com.alura.forumapi.topic.dto.TopicTrendingResponse;
+import br.com.alura.forumapi.topic.entity.Topic;
+import br.com.alura.forumapi.topic.repository.TopicRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Ranking de tópicos em alta (GET /topics/trending), mantido em memória.
+ *
+ * Cada evento (criação, edição, resposta, visualização) soma um peso ao score do tópico, e o score
+ * decai exponencialmente (meia-vida em topics.trending.half-life-minutes). O score é guardado em
+ * escala logarítmica relativa ao início da aplicação ("forward decay"): um evento no instante t vale
+ * ln(peso) + λ·t, então scores antigos nunca precisam ser reescritos e a ordem entre tópicos não muda
+ * com o passar do tempo. Cada evento altera só a entrada do tópico (CAS, sem lock).
+ *
+ * A cada topics.trending.refresh-ms o conjunto acompanhado é ordenado em memória, perde os tópicos frios
+ * e os além de topics.trending.capacity, e vira listas prontas (imutáveis) com os K primeiros no geral e
+ * por curso: cada requisição só copia até K itens. A tabela de tópicos só é consultada depois do corte,
+ * para os tópicos restantes sem dados exibidos ou cujos dados mudaram por uma resposta nova, em lotes por IN.
+ */
+@Component
+public class TopicTrendingIndex {
+
+    // Pesos dos eventos: uma resposta ou um tópico novo contam mais que uma leitura
+    private static final double CREATED_WEIGHT = 3.0;
+    private static final double UPDATED_WEIGHT = 1.0;
+    private static final double REPLY_WEIGHT = 2.0;
+    private static final double VIEW_WEIGHT = 0.1;
+
+    // Abaixo disso (ex.: uma visualização após várias meias-vidas) o tópico deixa de ser acompanhado
+    private static final double MIN_SCORE = 0.01;
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    // Uma leitura ainda em andamento quando o tópico é apagado não pode recriá-lo no ranking
+    private static final Duration DELETED_MEMORY = Duration.ofMinutes(1);
+
+    private static final class Entry {
+
+        private final long topicId;
+        private final AtomicLong logScoreBits = new AtomicLong(Double.doubleToRawLongBits(Double.NEGATIVE_INFINITY));
+        private final AtomicReference<TopicResponse> topic = new AtomicReference<>();
+        // Dados exibidos desatualizados (resposta nova): recarregados no próximo recálculo
+        private volatile boolean stale;
+
+        private Entry(long topicId) {
+            this.topicId = topicId;
+        }
+
+        double logScore() {
+            return Double.longBitsToDouble(logScoreBits.get());
+        }
+
+        // ln(e^a + e^b) sem overflow: o maior termo fica fora do log1p
+        void add(double logWeight) {
+            long current;
+            long updated;
+            do {
+                current = logScoreBits.get();
+                double a = Double.longBitsToDouble(current);
+                double max = Math.max(a, logWeight);
+                double sum = max + Math.log1p(Math.exp(Math.min(a, logWeight) - max));
+                updated = Double.doubleToRawLongBits(sum);
+            } while (!logScoreBits.compareAndSet(current, updated));
+        }
+    }
+
+    private record ScoredEntry(Entry entry, double logScore) {}
+
+    private record Ranking(List<TopicTrendingResponse> all, Map<String, List<TopicTrendingResponse>> byCourse) {}
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Cache<Long, Boolean> recentlyDeleted = Caffeine.newBuilder()
+            .expireAfterWrite(DELETED_MEMORY)
+            .build();
+    private final TopicRepository topicRepository;
+    private final long startNanos = System.nanoTime();
+    private final double decayPerNano;
+    private final int topSize;
+    private final int capacity;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile Ranking ranking = new Ranking(List.of(), Map.of());
+
+    public TopicTrendingIndex(TopicRepository topicRepository,
+                              @Value("${topics.trending.half-life-minutes:360}") long halfLifeMinutes,
+                              @Value("${topics.trending.top-size:100}") int topSize,
+                              @Value("${topics.trending.capacity:10000}") int capacity) {
+        this.topicRepository = topicRepository;
+        this.decayPerNano = Math.log(2) / (halfLifeMinutes * 60_000_000_000.0);
+        this.topSize = topSize;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Registra a criação de um tópico
+     * @param topic tópico criado (com autor e curso carregados)
+     */
+    public void topicCreated(Topic topic) {
+        Entry entry = entry(topic.getId());
+        entry.topic.set(new TopicResponse(topic));
+        entry.add(logWeight(CREATED_WEIGHT));
+        forgetIfDeleted(entry);
+    }
+
+    /**
+     * Registra a edição de um tópico (atualiza também os dados exibidos e o curso)
+     * @param topic tópico gravado (com autor e curso carregados)
+     */
+    public void topicUpdated(Topic topic) {
+        Entry entry = entry(topic.getId());
+        entry.topic.set(new TopicResponse(topic));
+        entry.add(logWeight(UPDATED_WEIGHT));
+        forgetIfDeleted(entry);
+    }
+
+    /**
+     * Registra uma leitura de um tópico já carregado
+     * @param topic tópico lido (com autor e curso carregados)
+     */
+    public void topicViewed(Topic topic) {
+        Entry entry = entry(topic.getId());
+        entry.topic.compareAndSet(null, new TopicResponse(topic));
+        entry.add(logWeight(VIEW_WEIGHT));
+        forgetIfDeleted(entry);
+    }
+
+    /**
+     * Registra uma leitura respondida sem carregar o tópico (304)
+     * @param topicId ID do tópico
+     */
+    public void topicViewed(Long topicId) {
+        Entry entry = entry(topicId);
+        entry.add(logWeight(VIEW_WEIGHT));
+        forgetIfDeleted(entry);
+    }
+
+    /**
+     * Registra uma resposta nova em um tópico (o total de respostas exibido é recarregado no próximo recálculo)
+     * @param topicId ID do tópico
+     */
+    public void replyAdded(Long topicId) {
+        Entry entry = entry(topicId);
+        entry.stale = true;
+        entry.add(logWeight(REPLY_WEIGHT));
+        forgetIfDeleted(entry);
+    }
+
+    /**
+     * Remove um tópico do ranking
+     * @param topicId ID do tópico
+     */
+    public void topicDeleted(Long topicId) {
+        // Marca antes de remover: um evento concorrente ou vê a marca, ou cria a entrada antes da remoção
+        recentlyDeleted.put(topicId, Boolean.TRUE);
+        entries.remove(topicId);
+    }
+
+    /**
+     * Tópicos em alta segundo o último recálculo
+     * @param courseName curso (null ou vazio para todos)
+     * @param limit quantidade desejada (limitada a topics.trending.top-size)
+     * @return List<TopicTrendingResponse>
+     */
+    public List<TopicTrendingResponse> trending(String courseName, int limit) {
+        Ranking current = ranking;
+        List<TopicTrendingResponse> topics = (courseName == null || courseName.isBlank())
+                ? current.all()
+                : current.byCourse().getOrDefault(key(courseName), List.of());
+        return topics.subList(0, Math.min(Math.max(limit, 0), topics.size()));
+    }
+
+    /**
+     * Recalcula as listas servidas: descarta tópicos frios (ou além da capacidade) e separa os K primeiros
+     */
+    @Scheduled(fixedDelayString = "${topics.trending.refresh-ms:10000}")
+    public void refresh() {
+        // ReentrantLock, não synchronized: a carga dos tópicos faz I/O com o lock e não pode prender
+        // a carrier thread de uma virtual thread (spring.threads.virtual.enabled)
+        refreshLock.lock();
+        try {
+            rebuildRanking();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void rebuildRanking() {
+        double nowLogOffset = decayPerNano * (System.nanoTime() - startNanos);
+        double minLogScore = Math.log(MIN_SCORE) + nowLogOffset;
+
+        // Scores copiados antes de ordenar: eventos concorrentes não mudam a ordem durante o sort
+        List<ScoredEntry> ranked = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            double logScore = entry.logScore();
+            if (logScore < minLogScore) {
+                entries.remove(entry.topicId, entry);
+            } else {
+                ranked.add(new ScoredEntry(entry, logScore));
+            }
+        }
+        ranked.sort(Comparator.comparingDouble(ScoredEntry::logScore).reversed());
+
+        for (int i = capacity; i < ranked.size(); i++) {
+            Entry entry = ranked.get(i).entry();
+            entries.remove(entry.topicId, entry);
+        }
+
+        // Só depois de descartar os frios e os excedentes: a tabela de tópicos é consultada apenas
+        // para as entradas que continuam no ranking
+        List<ScoredEntry> surviving = ranked.subList(0, Math.min(capacity, ranked.size()));
+        loadMissingTopics(surviving);
+
+        List<TopicTrendingResponse> all = new ArrayList<>(Math.min(topSize, surviving.size()));
+        Map<String, List<TopicTrendingResponse>> byCourse = new HashMap<>();
+        for (ScoredEntry scored : surviving) {
+            TopicResponse topic = scored.entry().topic.get();
+            if (topic == null) {
+                // Tópico que não existe mais (já removido do acompanhamento)
+                continue;
+            }
+            List<TopicTrendingResponse> courseTopics =
+                    byCourse.computeIfAbsent(key(topic.getCourseName()), k -> new ArrayList<>());
+            if (all.size() >= topSize && courseTopics.size() >= topSize) {
+                continue;
+            }
+
+            TopicTrendingResponse item = new TopicTrendingResponse(topic, Math.exp(scored.logScore() - nowLogOffset));
+            if (all.size() < topSize) {
+                all.add(item);
+            }
+            if (courseTopics.size() < topSize) {
+                courseTopics.add(item);
+            }
+        }
+        ranking = new Ranking(List.copyOf(all), byCourse.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, course -> List.copyOf(course.getValue()))));
+    }
+
+    // Entradas que só receberam eventos sem dados (304, respostas) ou com respostas novas: busca os dados
+    // por IN em lotes; os tópicos que não existem mais saem do ranking
+    private void loadMissingTopics(List<ScoredEntry> ranked) {
+        List<Long> missing = new ArrayList<>();
+        Map<Long, TopicResponse> shown = new HashMap<>();
+        for (ScoredEntry scored : ranked) {
+            Entry entry = scored.entry();
+            if (entry.topic.get() == null || entry.stale) {
+                // Limpa antes da consulta: uma resposta posterior volta a marcar a entrada
+                entry.stale = false;
+                missing.add(entry.topicId);
+                TopicResponse current = entry.topic.get();
+                if (current != null) {
+                    shown.put(entry.topicId, current);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Topic> found = new HashMap<>();
+        for (int from = 0; from < missing.size(); from += LOAD_BATCH_SIZE) {
+            List<Long> ids = missing.subList(from, Math.min(from + LOAD_BATCH_SIZE, missing.size()));
+            topicRepository.findByIdIn(ids).forEach(topic -> found.put(topic.getId(), topic));
+        }
+        for (Long topicId : missing) {
+            Topic topic = found.get(topicId);
+            Entry entry = entries.get(topicId);
+            if (entry == null) {
+                continue;
+            }
+            if (topic == null) {
+                entries.remove(topicId, entry);
+            } else {
+                // Uma edição concorrente já gravou dados mais novos que os lidos aqui: prevalecem
+                entry.topic.compareAndSet(shown.get(topicId), new TopicResponse(topic));
+            }
+        }
+    }
+
+    private Entry entry(Long topicId) {
+        return entries.computeIfAbsent(topicId, Entry::new);
+    }
+
+    // Depois do evento: se o tópico foi apagado, a entrada (possivelmente recriada pelo evento) sai
+    private void forgetIfDeleted(Entry entry) {
+        if (recentlyDeleted.getIfPresent(entry.topicId) != null) {
+            entries.remove(entry.topicId, entry);
+        }
+    }
+
+    // ln(peso) + λ·t: o peso de um evento cresce com o tempo em vez de os scores antigos decaírem
+    private double logWeight(double weight) {
+        return Math.log(weight) + decayPerNano * (System.nanoTime() - startNanos);
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,175 @@
+package br.com.alura.forumapi.topic.service;
+
+import br.com.alura.forumapi.topic.entity.Topic;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versões usadas nos ETags das leituras de tópicos.
+ *
+ * Tópico individual: ETag forte derivado de id + a coluna version, incrementada no banco (sob o lock
+ * da linha) por cada edição e cada resposta nova; datas não servem de versão, pois são calculadas antes
+ * do lock e duas escritas podem cair no mesmo microssegundo. A versão conhecida de cada tópico fica em
+ * cache, então um If-None-Match que ainda confere é respondido sem consultar o banco.
+ * Listagens: ETag fraco derivado de um contador por filtro (todos os tópicos, por curso e por autor)
+ * que toda escrita de tópico incrementa. Os contadores vivem em memória; o instante de inicialização
+ * entra nos dois ETags para que um ETag emitido antes de um restart nunca volte a conferir (com o banco
+ * em memória, o mesmo id e a mesma versão podem voltar a existir para outro tópico).
+ */
+@Component
+public class TopicVersionRegistry {
+
+    // Marca de tópico removido: nunca é sobrescrita por uma leitura concorrente mais antiga
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final String startupEpoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Cache<Long, Long> topicVersions;
+    private final AtomicLong allTopicsVersion = new AtomicLong();
+    private final Map<String, AtomicLong> courseVersions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> authorVersions = new ConcurrentHashMap<>();
+
+    public TopicVersionRegistry(@Value("${topics.etag.cache-size:100000}") long cacheSize) {
+        this.topicVersions = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    /**
+     * ETag de um tópico a partir da versão em cache (sem acessar o banco)
+     * @param topicId ID do tópico
+     * @return ETag forte, ou vazio se a versão não for conhecida (ou o tópico foi removido)
+     */
+    public Optional<String> findTopicETag(Long topicId) {
+        Long version = topicVersions.getIfPresent(topicId);
+        if (version == null || version == DELETED) {
+            return Optional.empty();
+        }
+        return Optional.of(strongETag(topicId, version));
+    }
+
+    /**
+     * ETag de um tópico carregado do banco; registra sua versão no cache
+     * @param topic tópico
+     * @return ETag forte
+     */
+    public String topicETag(Topic topic) {
+        long version = topic.getVersion();
+        topicVersions.asMap().merge(topic.getId(), version, Math::max);
+        return strongETag(topic.getId(), version);
+    }
+
+    /**
+     * ETag de uma página da listagem geral ou filtrada por curso
+     * @param courseName curso filtrado (null para todos os tópicos)
+     * @param query parâmetros da requisição (página, ordenação, busca...)
+     * @return ETag fraco
+     */
+    public String topicsETag(String courseName, String query) {
+        if (courseName == null || courseName.isBlank()) {
+            return weakETag(topicsVersion(courseName), "all?" + query);
+        }
+        return weakETag(topicsVersion(courseName), "course:" + key(courseName) + "?" + query);
+    }
+
+    /**
+     * Versão atual da listagem geral ou de um curso; muda a cada escrita de tópico no escopo
+     * (usada também nas chaves do TopicPageCache)
+     * @param courseName curso filtrado (null para todos os tópicos)
+     * @return versão da listagem
+     */
+    public long topicsVersion(String courseName) {
+        if (courseName == null || courseName.isBlank()) {
+            return allTopicsVersion.get();
+        }
+        return counter(courseVersions, courseName).get();
+    }
+
+    /**
+     * ETag de uma página dos tópicos de um autor
+     * @param username autor
+     * @param query parâmetros da requisição
+     * @return ETag fraco
+     */
+    public String authorTopicsETag(String username, String query) {
+        return weakETag(counter(authorVersions, username).get(), "author:" + username + "?" + query);
+    }
+
+    /**
+     * Registra a criação ou alteração de um tópico
+     * @param topic tópico gravado (com autor e curso carregados)
+     * @param previousCourseName curso anterior, se o tópico mudou de curso (ou null)
+     */
+    public void topicSaved(Topic topic, String previousCourseName) {
+        topicVersions.asMap().merge(topic.getId(), topic.getVersion(), Math::max);
+        listsChanged(topic.getCourse().getName(), topic.getAuthor().getUsername());
+        if (previousCourseName != null) {
+            counter(courseVersions, previousCourseName).incrementAndGet();
+        }
+    }
+
+    /**
+     * Registra a remoção de um tópico
+     * @param topicId ID do tópico
+     * @param courseName curso do tópico
+     * @param authorUsername autor do tópico
+     */
+    public void topicDeleted(Long topicId, String courseName, String authorUsername) {
+        topicVersions.put(topicId, DELETED);
+        listsChanged(courseName, authorUsername);
+    }
+
+    /**
+     * Registra uma resposta nova em um tópico (muda replyCount e lastReplyAt)
+     * @param topicId ID do tópico
+     * @param courseName curso do tópico
+     * @param authorUsername autor do tópico
+     * @param version versão do tópico gravada junto com a resposta
+     */
+    public void replyAdded(Long topicId, String courseName, String authorUsername, long version) {
+        topicVersions.asMap().merge(topicId, version, Math::max);
+        listsChanged(courseName, authorUsername);
+    }
+
+    /**
+     * Registra tópicos novos gravados em lote (ex.: importação)
+     * @param courseNames cursos que receberam tópicos
+     * @param authorUsernames autores dos tópicos
+     */
+    public void topicsImported(Collection<String> courseNames, Collection<String> authorUsernames) {
+        allTopicsVersion.incrementAndGet();
+        courseNames.forEach(courseName -> counter(courseVersions, courseName).incrementAndGet());
+        authorUsernames.forEach(username -> counter(authorVersions, username).incrementAndGet());
+    }
+
+    private void listsChanged(String courseName, String authorUsername) {
+        allTopicsVersion.incrementAndGet();
+        counter(courseVersions, courseName).incrementAndGet();
+        counter(authorVersions, authorUsername).incrementAndGet();
+    }
+
+    private String strongETag(Long topicId, long version) {
+        return "\"" + topicId + "-" + startupEpoch + "-" + Long.toString(version, 36) + "\"";
+    }
+
+    private String weakETag(long version, String scope) {
+        return "W/\"" + startupEpoch + "-" + version + "-" + Integer.toHexString(scope.hashCode()) + "\"";
+    }
+
+    private static AtomicLong counter(Map<String, AtomicLong> counters, String name) {
+        return counters.computeIfAbsent(key(name), k -> new AtomicLong());
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
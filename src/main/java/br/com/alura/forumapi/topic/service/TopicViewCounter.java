@@ -0,0 +1,214 @@
+package br.com.alura.forumapi.topic.service;
+
+import br.com.alura.forumapi.topic.dto.TopicViewCountResponse;
+import br.com.alura.forumapi.topic.repository.TopicRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Contador de visualizações de tópicos (GET /topics/{id}).
+ *
+ * Um UPDATE por leitura serializaria as leituras do mesmo tópico no lock da linha. As visualizações
+ * são acumuladas em memória (um LongAdder por tópico: incrementos concorrentes caem em células
+ * diferentes, sem disputa) e somadas ao banco em um lote JDBC a cada topics.views.flush-ms e no
+ * encerramento da aplicação. O ranking de mais vistos é recalculado após cada flush e servido da memória.
+ *
+ * Os acumuladores ficam em uma geração (mapa por tópico): cada flush publica uma geração nova e vazia,
+ * então tópicos sem visualizações não ocupam memória. Quem registra uma visualização entra na geração,
+ * confere se ela ainda é a atual e sai depois do incremento; o flush só soma a geração anterior quando
+ * todos que entraram nela saíram. Assim nenhuma leitura se perde nem é contada duas vezes, mesmo vinda
+ * de uma thread que ficou parada entre ler a geração e incrementar o acumulador.
+ */
+@Component
+public class TopicViewCounter {
+
+    private static final String FLUSH_SQL = "UPDATE topics SET view_count = view_count + ? WHERE id = ?";
+
+    private record PendingViews(long topicId, long views) {}
+
+    // Acumuladores de um intervalo entre flushes. entered/exited só crescem (LongAdder: sem disputa)
+    private static final class Generation {
+        private final Map<Long, LongAdder> views = new ConcurrentHashMap<>();
+        private final LongAdder entered = new LongAdder();
+        private final LongAdder exited = new LongAdder();
+
+        // exited lido antes de entered: como os dois só crescem, a igualdade garante que todos
+        // que entraram antes da leitura já saíram
+        boolean quiescent() {
+            long exits = exited.sum();
+            return entered.sum() == exits;
+        }
+    }
+
+    private final TopicRepository topicRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int topSize;
+
+    // ReentrantLock, não synchronized: o flush faz JDBC com o lock e não pode prender a carrier thread
+    // de uma virtual thread (spring.threads.virtual.enabled)
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Generation current = new Generation();
+
+    private volatile List<TopicViewCountResponse> mostViewed;
+
+    public TopicViewCounter(TopicRepository topicRepository,
+                            JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${topics.views.top-size:100}") int topSize) {
+        this.topicRepository = topicRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.topSize = topSize;
+    }
+
+    /**
+     * Registra uma visualização (apenas em memória)
+     * @param topicId ID do tópico
+     */
+    public void recordView(Long topicId) {
+        while (true) {
+            Generation generation = current;
+            generation.entered.increment();
+            try {
+                // Conferida depois de entrar: se o flush já trocou a geração, registra na nova
+                if (generation == current) {
+                    LongAdder adder = generation.views.get(topicId);
+                    if (adder == null) {
+                        adder = generation.views.computeIfAbsent(topicId, id -> new LongAdder());
+                    }
+                    adder.increment();
+                    return;
+                }
+            } finally {
+                generation.exited.increment();
+            }
+        }
+    }
+
+    /**
+     * Remove um tópico apagado do ranking servido e descarta suas visualizações pendentes
+     * Exclusivo com o flush: um recálculo em andamento (que pode ter lido o tópico antes da
+     * remoção) termina antes, e o tópico é retirado da lista que ele publicou
+     * @param topicId ID do tópico
+     */
+    public void topicDeleted(Long topicId) {
+        lock.lock();
+        try {
+            current.views.remove(topicId);
+            List<TopicViewCountResponse> ranking = mostViewed;
+            if (ranking != null && ranking.stream().anyMatch(entry -> entry.getTopic().getId().equals(topicId))) {
+                mostViewed = ranking.stream()
+                        .filter(entry -> !entry.getTopic().getId().equals(topicId))
+                        .toList();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tópicos mais vistos segundo o último flush
+     * @param limit quantidade desejada (limitada a topics.views.top-size)
+     * @return List<TopicViewCountResponse>
+     */
+    public List<TopicViewCountResponse> mostViewed(int limit) {
+        List<TopicViewCountResponse> ranking = mostViewed;
+        if (ranking == null) {
+            ranking = loadMostViewed();
+        }
+        return ranking.subList(0, Math.min(Math.max(limit, 0), ranking.size()));
+    }
+
+    /**
+     * Soma as visualizações acumuladas ao banco em um único lote
+     */
+    @Scheduled(fixedDelayString = "${topics.views.flush-ms:5000}")
+    public void flush() {
+        lock.lock();
+        try {
+            Generation retired = current;
+            current = new Generation();
+            // Quem leu a geração anterior antes da troca está a poucas instruções de sair
+            while (!retired.quiescent()) {
+                Thread.yield();
+            }
+
+            Map<Long, Long> views = new HashMap<>();
+            retired.views.forEach((topicId, adder) -> {
+                long sum = adder.sum();
+                if (sum > 0) {
+                    views.put(topicId, sum);
+                }
+            });
+
+            if (!views.isEmpty()) {
+                write(views);
+                refreshMostViewed();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Grava as visualizações pendentes no encerramento (o servidor já parou de receber requisições)
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void write(Map<Long, Long> views) {
+        // Ordem por ID: instâncias concorrentes travam as linhas na mesma ordem
+        List<PendingViews> batch = new ArrayList<>(views.size());
+        views.forEach((topicId, count) -> batch.add(new PendingViews(topicId, count)));
+        batch.sort((a, b) -> Long.compare(a.topicId(), b.topicId()));
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch, batch.size(),
+                    (ps, pendingViews) -> {
+                        ps.setLong(1, pendingViews.views());
+                        ps.setLong(2, pendingViews.topicId());
+                    }));
+        } catch (RuntimeException e) {
+            // Falha no lote: as visualizações voltam para o acumulador e entram no próximo flush
+            // (gravadas na geração atual antes da próxima troca, feita com este mesmo lock)
+            batch.forEach(pendingViews -> current.views.computeIfAbsent(pendingViews.topicId(), id -> new LongAdder())
+                    .add(pendingViews.views()));
+            throw e;
+        }
+    }
+
+    // Primeira leitura antes de qualquer flush
+    private List<TopicViewCountResponse> loadMostViewed() {
+        lock.lock();
+        try {
+            return mostViewed != null ? mostViewed : refreshMostViewed();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<TopicViewCountResponse> refreshMostViewed() {
+        List<TopicViewCountResponse> ranking = topicRepository
+                .findAllByOrderByViewCountDescIdDesc(PageRequest.of(0, topSize)).stream()
+                .map(TopicViewCountResponse::new)
+                .toList();
+        mostViewed = ranking;
+        return ranking;
+    }
+}
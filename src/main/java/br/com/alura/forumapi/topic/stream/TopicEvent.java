@@ -0,0 +1,84 @@
+package br.com.alura.forumapi.topic.stream;
+
+import br.com.alura.forumapi.topic.dto.TopicResponse;
+import br.com.alura.forumapi.topic.entity.Topic;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Alteração de tópico publicada no feed SSE (GET /topics/stream).
+ * O tipo vai no nome do evento SSE; o corpo leva o tópico (ausente em "deleted")
+ * e, quando o tópico mudou de curso, o curso anterior.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TopicEvent {
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+
+    private final String type;
+    private final Long topicId;
+    private final String courseName;
+    private final String previousCourseName;
+    private final TopicResponse topic;
+
+    private TopicEvent(String type, Long topicId, String courseName, String previousCourseName, TopicResponse topic) {
+        this.type = type;
+        this.topicId = topicId;
+        this.courseName = courseName;
+        this.previousCourseName = previousCourseName;
+        this.topic = topic;
+    }
+
+    /**
+     * Evento de tópico criado
+     * @param topic tópico gravado (com autor e curso carregados)
+     * @return TopicEvent
+     */
+    public static TopicEvent created(Topic topic) {
+        return new TopicEvent(CREATED, topic.getId(), topic.getCourse().getName(), null, new TopicResponse(topic));
+    }
+
+    /**
+     * Evento de tópico atualizado
+     * @param topic tópico atualizado (com autor e curso carregados)
+     * @param previousCourseName curso anterior, se o tópico mudou de curso (ou null)
+     * @return TopicEvent
+     */
+    public static TopicEvent updated(Topic topic, String previousCourseName) {
+        return new TopicEvent(UPDATED, topic.getId(), topic.getCourse().getName(), previousCourseName,
+                new TopicResponse(topic));
+    }
+
+    /**
+     * Evento de tópico removido
+     * @param topicId ID do tópico
+     * @param courseName curso do tópico
+     * @return TopicEvent
+     */
+    public static TopicEvent deleted(Long topicId, String courseName) {
+        return new TopicEvent(DELETED, topicId, courseName, null, null);
+    }
+
+    @JsonIgnore
+    public String getType() {
+        return type;
+    }
+
+    public Long getTopicId() {
+        return topicId;
+    }
+
+    public String getCourseName() {
+        return courseName;
+    }
+
+    public String getPreviousCourseName() {
+        return previousCourseName;
+    }
+
+    public TopicResponse getTopic() {
+        return topic;
+    }
+}
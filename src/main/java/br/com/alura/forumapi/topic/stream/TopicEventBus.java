@@ -0,0 +1,199 @@
+package br.com.alura.forumapi.topic.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Distribui as alterações de tópicos para as conexões SSE abertas (GET /topics/stream).
+ *
+ * As conexões usam o modo assíncrono do Servlet: uma conexão ociosa não ocupa thread do Tomcat.
+ * Cada evento é serializado uma vez e entregue ao buffer de cada inscrito do curso (e aos inscritos
+ * em todos os cursos); os envios rodam em virtual threads, então um cliente lento não atrasa o
+ * TopicService nem os demais inscritos. Não há histórico: quem reconecta recebe só os eventos seguintes.
+ */
+@Component
+public class TopicEventBus {
+
+    // Comentário SSE periódico: mantém proxies abertos e detecta clientes desconectados
+    private static final Set<DataWithMediaType> KEEP_ALIVE = SseEmitter.event().comment("keep-alive").build();
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final ExecutorService sender;
+    private final Counter dropped;
+
+    private final Set<TopicStreamSubscriber> allCourses = ConcurrentHashMap.newKeySet();
+    private final Map<String, Set<TopicStreamSubscriber>> byCourse = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public TopicEventBus(ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${topics.stream.buffer-size:64}") int bufferSize,
+                         @Value("${topics.stream.max-subscribers:5000}") int maxSubscribers,
+                         @Value("${topics.stream.timeout-ms:1800000}") long timeoutMillis) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeoutMillis;
+        this.sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("topic-stream-", 0).factory());
+
+        this.dropped = Counter.builder("topics.stream.dropped")
+                .description("Eventos descartados por buffer cheio (cliente lento)")
+                .register(meterRegistry);
+        Gauge.builder("topics.stream.subscribers", subscribers, AtomicInteger::get)
+                .description("Conexões SSE abertas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Abre uma inscrição no feed
+     * @param courseName curso acompanhado (null ou vazio para todos os cursos)
+     * @return emitter a ser devolvido pelo controller, ou vazio se o limite de conexões foi atingido
+     */
+    public Optional<SseEmitter> subscribe(String courseName) {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            return Optional.empty();
+        }
+
+        // Mesma chave dos eventos: ?course=java recebe os tópicos do curso "Java"
+        String course = courseName == null || courseName.isBlank() ? null : key(courseName);
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        TopicStreamSubscriber subscriber = new TopicStreamSubscriber(
+                emitter, course, bufferSize, sender, dropped::increment);
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        // Sem resposta de erro no timeout: o cliente SSE simplesmente reconecta
+        emitter.onTimeout(emitter::complete);
+
+        if (course == null) {
+            allCourses.add(subscriber);
+        } else {
+            // Dentro do compute: não disputa com a remoção do conjunto vazio em removeFromCourse
+            byCourse.compute(course, (key, courseSubscribers) -> {
+                Set<TopicStreamSubscriber> target = courseSubscribers != null
+                        ? courseSubscribers
+                        : ConcurrentHashMap.<TopicStreamSubscriber>newKeySet();
+                target.add(subscriber);
+                return target;
+            });
+        }
+        return Optional.of(emitter);
+    }
+
+    /**
+     * Publica uma alteração para os inscritos do curso (e do curso anterior, se o tópico mudou de curso)
+     * Deve ser chamado após o commit
+     * @param event alteração do tópico
+     */
+    public void publish(TopicEvent event) {
+        if (subscribers.get() == 0) {
+            return;
+        }
+
+        Set<DataWithMediaType> frame = SseEmitter.event()
+                .id(Long.toString(sequence.incrementAndGet()))
+                .name(event.getType())
+                .data(toJson(event), MediaType.APPLICATION_JSON)
+                .build();
+
+        allCourses.forEach(subscriber -> subscriber.offer(frame));
+        String course = key(event.getCourseName());
+        deliver(course, frame);
+        if (event.getPreviousCourseName() != null && !key(event.getPreviousCourseName()).equals(course)) {
+            deliver(key(event.getPreviousCourseName()), frame);
+        }
+    }
+
+    /**
+     * Envia um keep-alive às conexões sem envio pendente
+     */
+    @Scheduled(fixedDelayString = "${topics.stream.keep-alive-ms:25000}")
+    public void keepAlive() {
+        allCourses.forEach(subscriber -> subscriber.offerIfIdle(KEEP_ALIVE));
+        byCourse.values().forEach(course -> course.forEach(subscriber -> subscriber.offerIfIdle(KEEP_ALIVE)));
+    }
+
+    /**
+     * Encerra as conexões abertas (os clientes reconectam em outra instância)
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        List<TopicStreamSubscriber> open = new ArrayList<>(allCourses);
+        byCourse.values().forEach(open::addAll);
+        open.forEach(subscriber -> {
+            subscriber.close();
+            subscriber.getEmitter().complete();
+        });
+        sender.shutdown();
+        sender.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void deliver(String courseKey, Set<DataWithMediaType> frame) {
+        Set<TopicStreamSubscriber> courseSubscribers = byCourse.get(courseKey);
+        if (courseSubscribers != null) {
+            courseSubscribers.forEach(subscriber -> subscriber.offer(frame));
+        }
+    }
+
+    private void unsubscribe(TopicStreamSubscriber subscriber) {
+        subscriber.close();
+        boolean removed = subscriber.getCourseName() == null
+                ? allCourses.remove(subscriber)
+                : removeFromCourse(subscriber);
+        // onCompletion e onError podem ser chamados para a mesma conexão
+        if (removed) {
+            subscribers.decrementAndGet();
+        }
+    }
+
+    private boolean removeFromCourse(TopicStreamSubscriber subscriber) {
+        boolean[] removed = new boolean[1];
+        byCourse.computeIfPresent(subscriber.getCourseName(), (course, courseSubscribers) -> {
+            removed[0] = courseSubscribers.remove(subscriber);
+            return courseSubscribers.isEmpty() ? null : courseSubscribers;
+        });
+        return removed[0];
+    }
+
+    // Nome do curso sem diferença de caixa nem espaços nas pontas (o mesmo critério da busca por curso)
+    private static String key(String courseName) {
+        return courseName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private String toJson(TopicEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.alura.forumapi.topic.stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Uma conexão SSE aberta, com buffer próprio e limitado.
+ *
+ * O publicador só enfileira e, se não houver envio em andamento, agenda um; a escrita no socket
+ * acontece fora da thread de quem publicou, uma de cada vez. Com o buffer cheio (cliente lento),
+ * o evento mais antigo é descartado para dar lugar ao novo.
+ */
+class TopicStreamSubscriber {
+
+    private final SseEmitter emitter;
+    private final String courseName;
+    private final int capacity;
+    private final Executor executor;
+    private final Runnable onDrop;
+    private final ArrayDeque<Set<DataWithMediaType>> buffer;
+
+    // Protegidos pelo monitor da instância
+    private boolean draining;
+    private boolean closed;
+
+    TopicStreamSubscriber(SseEmitter emitter, String courseName, int capacity, Executor executor, Runnable onDrop) {
+        this.emitter = emitter;
+        this.courseName = courseName;
+        this.capacity = capacity;
+        this.executor = executor;
+        this.onDrop = onDrop;
+        this.buffer = new ArrayDeque<>(capacity);
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * @return curso acompanhado (normalizado, sem diferença de caixa), ou null para todos os cursos
+     */
+    String getCourseName() {
+        return courseName;
+    }
+
+    /**
+     * Enfileira um evento já serializado; descarta o mais antigo se o buffer estiver cheio
+     * @param frame evento SSE pronto para envio
+     */
+    void offer(Set<DataWithMediaType> frame) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (buffer.size() == capacity) {
+                buffer.pollFirst();
+                onDrop.run();
+            }
+            buffer.addLast(frame);
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        executor.execute(this::drain);
+    }
+
+    /**
+     * Enfileira um evento apenas se não houver nada pendente (usado para o keep-alive)
+     * @param frame evento SSE pronto para envio
+     */
+    void offerIfIdle(Set<DataWithMediaType> frame) {
+        synchronized (this) {
+            if (draining || !buffer.isEmpty()) {
+                return;
+            }
+        }
+        offer(frame);
+    }
+
+    /**
+     * Interrompe o envio; eventos ainda no buffer são descartados
+     */
+    void close() {
+        synchronized (this) {
+            closed = true;
+            buffer.clear();
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Set<DataWithMediaType> frame;
+            synchronized (this) {
+                frame = buffer.pollFirst();
+                if (frame == null || closed) {
+                    draining = false;
+                    return;
+                }
+            }
+            try {
+                emitter.send(frame);
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectou ou a conexão já foi encerrada: o Spring MVC finaliza a requisição
+                // e o callback de conclusão remove a inscrição
+                close();
+                synchronized (this) {
+                    draining = false;
+                }
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.alura.forumapi.user.dto;
+
+import br.com.alura.forumapi.user.entity.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal imutável e leve para requisições autenticadas por JWT.
+ * Não carrega senha nem associações JPA, podendo ser mantido em cache com segurança.
+ */
+public class UserPrincipal implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final List<GrantedAuthority> authorities;
+
+    public UserPrincipal(User user) {
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.authorities = List.copyOf(user.getAuthorities());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        // A autenticação já foi feita pelo token: a senha não é necessária
+        return null;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+}
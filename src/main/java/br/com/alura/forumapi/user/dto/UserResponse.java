@@ -1,7 +1,8 @@
 package br.com.alura.forumapi.user.dto;
 
 import br.com.alura.forumapi.user.entity.User;
-import com.fasterxml.jackson.annotation.JsonFormat;
+import br.com.alura.forumapi.config.JsonDateTimeSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import java.time.LocalDateTime;
 
@@ -11,7 +12,7 @@ public class UserResponse {
     private String username;
     private String email;
 
-    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @JsonSerialize(using = JsonDateTimeSerializer.class)
     private LocalDateTime createdAt;
 
     // Constructors
@@ -27,6 +27,10 @@ public class User implements UserDetails {
     @Column(name = "username", nullable = false, unique = true)
     private String username;
 
+    // Coluna gerada LOWER(username), indexada (V2): login e cadastro comparam com ela
+    @Column(name = "username_lower", insertable = false, updatable = false)
+    private String usernameLower;
+
     @Column(name = "email", nullable = false, unique = true)
     private String email;
 
@@ -2,8 +2,13 @@ package br.com.alura.forumapi.user.repository;
 
 import br.com.alura.forumapi.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,6 +21,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByUsername(String username);
 
+    /**
+     * Busca usuários pelo username sem diferenciar maiúsculas (índice em username_lower)
+     * O índice não é único: se cadastros concorrentes criaram variações, o username exato vem primeiro
+     * @param username nome de usuário
+     * @return List<User>
+     */
+    @Query("SELECT u FROM User u WHERE u.usernameLower = LOWER(:username) " +
+            "ORDER BY CASE WHEN u.username = :username THEN 0 ELSE 1 END, u.id")
+    List<User> findAllByUsernameIgnoreCase(@Param("username") String username);
+
     /**
      * Busca um usuário pelo email
      * @param email email do usuário
@@ -30,10 +45,29 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     boolean existsByUsername(String username);
 
+    /**
+     * Verifica se existe um usuário com o username especificado, sem diferenciar maiúsculas
+     * @param username nome de usuário
+     * @return true se existir, false caso contrário
+     */
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE u.usernameLower = LOWER(:username)")
+    boolean existsByUsernameIgnoreCase(@Param("username") String username);
+
     /**
      * Verifica se existe um usuário com o email especificado
      * @param email email do usuário
      * @return true se existir, false caso contrário
      */
     boolean existsByEmail(String email);
+
+    /**
+     * Atualiza o hash da senha de um usuário
+     * @param username nome de usuário
+     * @param password novo hash da senha
+     * @return número de linhas alteradas
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
 }
@@ -0,0 +1,61 @@
+package br.com.alura.forumapi.user.service;
+
+import br.com.alura.forumapi.user.dto.UserPrincipal;
+import br.com.alura.forumapi.user.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache dos principals usados na autenticação por JWT.
+ *
+ * Como a sessão é STATELESS, cada requisição autenticada buscaria o usuário no banco.
+ * Com o cache, a busca acontece apenas no primeiro acesso (ou após o TTL);
+ * alterações de usuário devem chamar {@link #invalidate(String)}.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserPrincipal> principals;
+
+    public UserPrincipalCache(UserRepository userRepository,
+                              @Value("${auth.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                              @Value("${auth.principal-cache.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.principals = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Busca o principal de um usuário, consultando o banco apenas se não estiver em cache
+     * @param username nome de usuário
+     * @return Optional<UserPrincipal> (vazio se o usuário não existir; ausências não são cacheadas)
+     */
+    public Optional<UserPrincipal> get(String username) {
+        UserPrincipal cached = principals.getIfPresent(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        // A consulta fica fora do compute do cache: dentro dele a thread segura o lock do
+        // ConcurrentHashMap durante o I/O (e, com virtual threads, prende a carrier thread)
+        Optional<UserPrincipal> loaded = userRepository.findByUsername(username).map(UserPrincipal::new);
+        loaded.ifPresent(principal -> principals.put(username, principal));
+        return loaded;
+    }
+
+    /**
+     * Remove um usuário do cache (chamar sempre que o usuário for alterado)
+     * @param username nome de usuário
+     */
+    public void invalidate(String username) {
+        principals.invalidate(username);
+    }
+}
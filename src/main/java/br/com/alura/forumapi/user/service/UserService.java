@@ -1,8 +1,10 @@
 package br.com.alura.forumapi.user.service;
 
+import br.com.alura.forumapi.stats.service.StatsService;
 import br.com.alura.forumapi.user.entity.User;
 import br.com.alura.forumapi.user.repository.UserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -12,15 +14,20 @@ import java.util.List;
 import java.util.Optional;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final StatsService statsService;
+    private final UserPrincipalCache userPrincipalCache;
 
     // IMPORTANTE: Use injeção por construtor ao invés de @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       StatsService statsService, UserPrincipalCache userPrincipalCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.statsService = statsService;
+        this.userPrincipalCache = userPrincipalCache;
     }
 
     /**
@@ -64,10 +71,11 @@ public class UserService implements UserDetailsService {
      * @param email email do usuário
      * @param password senha do usuário
      * @return User criado
-     * @throws IllegalArgumentException se username ou email já existirem
+     * @throws IllegalArgumentException se username (sem diferenciar maiúsculas) ou email já existirem
      */
     public User createUser(String username, String email, String password) {
-        if (userRepository.existsByUsername(username)) {
+        // "Alice" e "alice" seriam contas diferentes com o mesmo login
+        if (userRepository.existsByUsernameIgnoreCase(username)) {
             throw new IllegalArgumentException("Username já existe: " + username);
         }
 
@@ -80,21 +88,43 @@ public class UserService implements UserDetailsService {
         user.setEmail(email);
         user.setPassword(passwordEncoder.encode(password));
 
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userPrincipalCache.invalidate(username);
+        statsService.userCreated();
+        return savedUser;
     }
 
     /**
      * Implementação do UserDetailsService para Spring Security
+     * O login não diferencia maiúsculas; o usuário devolvido tem o username cadastrado (usado no token)
      * @param username nome de usuário
      * @return UserDetails
      * @throws UsernameNotFoundException se usuário não for encontrado
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsername(username)
+        return userRepository.findAllByUsernameIgnoreCase(username).stream()
+                .findFirst()
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
     }
 
+    /**
+     * Grava a senha com o novo hash (chamado pelo Spring Security no login quando
+     * o custo do BCrypt configurado é maior que o do hash armazenado)
+     * @param user usuário autenticado
+     * @param newPassword senha já codificada com o custo atual
+     * @return UserDetails com a senha atualizada
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        userPrincipalCache.invalidate(user.getUsername());
+        if (user instanceof User entity) {
+            entity.setPassword(newPassword);
+        }
+        return user;
+    }
+
     /**
      * Verifica se um usuário existe pelo username
      * @param username nome de usuário
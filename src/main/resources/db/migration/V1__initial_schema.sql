@@ -0,0 +1,38 @@
+-- Schema inicial: o mesmo que o Hibernate gerava com ddl-auto=update
+
+CREATE TABLE users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username   VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    password   VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6),
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE courses (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name             VARCHAR(255) NOT NULL,
+    description      VARCHAR(255),
+    topic_count      BIGINT NOT NULL DEFAULT 0,
+    last_activity_at TIMESTAMP(6),
+    CONSTRAINT pk_courses PRIMARY KEY (id),
+    CONSTRAINT uk_courses_name UNIQUE (name)
+);
+
+CREATE TABLE topics (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    title      VARCHAR(255) NOT NULL,
+    message    TEXT NOT NULL,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    author_id  BIGINT NOT NULL,
+    course_id  BIGINT NOT NULL,
+    CONSTRAINT pk_topics PRIMARY KEY (id),
+    CONSTRAINT fk_topics_author FOREIGN KEY (author_id) REFERENCES users (id),
+    CONSTRAINT fk_topics_course FOREIGN KEY (course_id) REFERENCES courses (id)
+);
+
+-- Listagem de cursos por atividade (GET /courses)
+CREATE INDEX idx_courses_last_activity ON courses (last_activity_at DESC, id DESC);
@@ -0,0 +1,16 @@
+-- Índices das consultas de tópicos: todas ordenam por created_at DESC (e id DESC no keyset),
+-- sem eles cada listagem ordenava a tabela inteira
+
+-- Listagem geral (offset e keyset)
+CREATE INDEX idx_topics_created_at ON topics (created_at DESC, id DESC);
+
+-- Listagem por curso: filtro + ordenação no mesmo índice
+CREATE INDEX idx_topics_course_created ON topics (course_id, created_at DESC, id DESC);
+
+-- Tópicos de um autor (/topics/my-topics)
+CREATE INDEX idx_topics_author_created ON topics (author_id, created_at DESC);
+
+-- Busca de usuário sem diferenciar maiúsculas. O H2 não indexa expressões; a coluna gerada
+-- faz o papel de LOWER(username) (no PostgreSQL: CREATE INDEX ... ON users (LOWER(username)))
+ALTER TABLE users ADD COLUMN username_lower VARCHAR(255) GENERATED ALWAYS AS (LOWER(username));
+CREATE INDEX idx_users_username_lower ON users (username_lower);
@@ -0,0 +1,3 @@
+-- Ordenações públicas da listagem de tópicos (sortBy=updatedAt, sortBy=title), com id como desempate
+CREATE INDEX idx_topics_updated_at ON topics (updated_at DESC, id DESC);
+CREATE INDEX idx_topics_title ON topics (title, id);
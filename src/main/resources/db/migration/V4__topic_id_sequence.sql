@@ -0,0 +1,8 @@
+-- IDs de tópicos passam de IDENTITY para sequence com incremento 50: o Hibernate reserva um bloco
+-- de IDs por chamada (otimizador pooled-lo) e consegue agrupar os INSERTs em lote (jdbc.batch_size)
+CREATE SEQUENCE topics_id_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE topics_id_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM topics);
+
+-- INSERTs feitos fora do Hibernate (ex.: carga via JDBC) também usam a sequence, sem colidir com os blocos
+ALTER TABLE topics ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE topics ALTER COLUMN id SET DEFAULT NEXT VALUE FOR topics_id_seq;
@@ -0,0 +1,20 @@
+-- Respostas dos tópicos: mesma estratégia de IDs dos tópicos (sequence com blocos de 50)
+CREATE SEQUENCE replies_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE replies (
+    id         BIGINT DEFAULT NEXT VALUE FOR replies_id_seq NOT NULL,
+    message    TEXT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    topic_id   BIGINT NOT NULL,
+    author_id  BIGINT NOT NULL,
+    CONSTRAINT pk_replies PRIMARY KEY (id),
+    CONSTRAINT fk_replies_topic FOREIGN KEY (topic_id) REFERENCES topics (id) ON DELETE CASCADE,
+    CONSTRAINT fk_replies_author FOREIGN KEY (author_id) REFERENCES users (id)
+);
+
+-- Respostas de um tópico em ordem cronológica (keyset em created_at, id) e a thread com as primeiras N
+CREATE INDEX idx_replies_topic_created ON replies (topic_id, created_at, id);
+
+-- Contadores desnormalizados: a listagem de tópicos mostra o total de respostas sem COUNT(*) por linha
+ALTER TABLE topics ADD COLUMN reply_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE topics ADD COLUMN last_reply_at TIMESTAMP(6);
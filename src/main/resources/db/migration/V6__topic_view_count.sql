@@ -0,0 +1,5 @@
+-- Visualizações dos tópicos: acumuladas em memória (TopicViewCounter) e somadas aqui em lotes periódicos
+ALTER TABLE topics ADD COLUMN view_count BIGINT NOT NULL DEFAULT 0;
+
+-- Tópicos mais vistos (GET /topics/most-viewed), lido a cada flush para atualizar o ranking em memória
+CREATE INDEX idx_topics_view_count ON topics (view_count DESC, id DESC);
@@ -0,0 +1,5 @@
+-- Busca de curso pelo nome sem diferenciar maiúsculas (CourseRepository.findByNameIgnoreCase).
+-- UPPER(name) = UPPER(?) não usa uk_courses_name; o H2 não indexa expressões, então a coluna gerada
+-- faz o papel de UPPER(name) e as consultas comparam com ela (no PostgreSQL: ON courses (UPPER(name)))
+ALTER TABLE courses ADD COLUMN name_upper VARCHAR(255) GENERATED ALWAYS AS (UPPER(name));
+CREATE INDEX idx_courses_name_upper ON courses (name_upper);
@@ -0,0 +1,3 @@
+-- Versão do conteúdo exibido de cada tópico (ETag forte): incrementada sob o lock da linha pelos UPDATEs
+-- de edição e de nova resposta, então duas escritas nunca produzem a mesma versão
+ALTER TABLE topics ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
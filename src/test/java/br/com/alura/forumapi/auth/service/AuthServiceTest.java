@@ -0,0 +1,105 @@
+package br.com.alura.forumapi.auth.service;
+
+import br.com.alura.forumapi.auth.dto.LoginRequest;
+import br.com.alura.forumapi.config.BoundedPasswordEncoder;
+import br.com.alura.forumapi.config.GlobalExceptionHandler;
+import br.com.alura.forumapi.user.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Garante que um login com o pool de hash saturado chega ao GlobalExceptionHandler como
+ * RejectedExecutionException (503), e não como credenciais inválidas, com usuário existente ou não.
+ */
+class AuthServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch hashing = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        passwordEncoder.shutdown();
+    }
+
+    @Test
+    void saturatedHashPoolIsServiceUnavailable() throws Exception {
+        AuthService authService = authService(saturatedPasswordEncoder());
+
+        Throwable existing = catchThrowable(() -> authService.login(login("ana")));
+        Throwable unknown = catchThrowable(() -> authService.login(login("desconhecido")));
+
+        assertThat(existing).isInstanceOf(RejectedExecutionException.class);
+        assertThat(unknown).isInstanceOf(RejectedExecutionException.class);
+        assertThat(new GlobalExceptionHandler()
+                .handleRejectedExecutionException((RejectedExecutionException) existing)
+                .getStatusCode())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    // Uma thread e uma vaga na fila, ambas ocupadas por hashes que só terminam no tearDown
+    private PasswordEncoder saturatedPasswordEncoder() throws InterruptedException {
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                hashing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "{noop}" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return false;
+            }
+        };
+        passwordEncoder = new BoundedPasswordEncoder(blocking, 1, 1, meterRegistry);
+
+        callers.submit(() -> passwordEncoder.encode("ocupa a thread"));
+        assertThat(hashing.await(5, TimeUnit.SECONDS)).isTrue();
+        callers.submit(() -> passwordEncoder.encode("ocupa a fila"));
+        while (meterRegistry.get("executor.queued").gauge().value() < 1) {
+            Thread.sleep(1);
+        }
+        return passwordEncoder;
+    }
+
+    private AuthService authService(PasswordEncoder encoder) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(username -> {
+            if (!username.equals("ana")) {
+                throw new UsernameNotFoundException(username);
+            }
+            return User.withUsername(username).password("hash").roles("USER").build();
+        });
+        provider.setPasswordEncoder(encoder);
+        return new AuthService(new ProviderManager(provider), mock(JwtService.class), mock(UserService.class));
+    }
+
+    private static LoginRequest login(String username) {
+        return new LoginRequest(username, "senha123");
+    }
+}
@@ -0,0 +1,206 @@
+package br.com.alura.forumapi.reply.service;
+
+import br.com.alura.forumapi.reply.dto.TopicThreadResponse;
+import br.com.alura.forumapi.reply.entity.Reply;
+import br.com.alura.forumapi.reply.repository.ReplyRepository;
+import br.com.alura.forumapi.topic.dto.TopicCursor;
+import br.com.alura.forumapi.topic.entity.Topic;
+import br.com.alura.forumapi.topic.repository.TopicRepository;
+import br.com.alura.forumapi.topic.service.TopicService;
+import br.com.alura.forumapi.topic.service.TopicTrendingIndex;
+import br.com.alura.forumapi.topic.service.TopicVersionRegistry;
+import br.com.alura.forumapi.user.entity.User;
+import br.com.alura.forumapi.user.repository.UserRepository;
+import br.com.alura.forumapi.user.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Garante que uma resposta nova atualiza o contador desnormalizado do tópico, que a paginação por
+ * cursor das respostas não perde nem repete linhas com a mesma data, e que a thread (tópico + primeiras
+ * respostas) sai de uma única consulta.
+ */
+@SpringBootTest
+class ReplyServiceTest {
+
+    private static final int THREAD_REPLIES = 3;
+
+    @Autowired
+    private ReplyService replyService;
+
+    @Autowired
+    private TopicService topicService;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private ReplyRepository replyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User author;
+    private String courseName;
+
+    @BeforeEach
+    void createAuthor() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        courseName = "Curso-" + suffix;
+
+        User user = new User();
+        user.setUsername("reply" + suffix);
+        user.setEmail("reply" + suffix + "@forum.test");
+        user.setPassword("{noop}senha");
+        author = userRepository.save(user);
+    }
+
+    @Test
+    void createReplyIncrementsReplyCountAndVersion() {
+        Topic topic = createTopic();
+
+        replyService.createReply(topic.getId(), "  Primeira resposta  ", author.getUsername());
+        Reply last = replyService.createReply(topic.getId(), "Segunda resposta", author.getUsername());
+
+        Topic saved = topicRepository.findById(topic.getId()).orElseThrow();
+        assertThat(saved.getReplyCount()).isEqualTo(2);
+        assertThat(saved.getLastReplyAt()).isEqualTo(last.getCreatedAt());
+        assertThat(saved.getVersion()).isEqualTo(topic.getVersion() + 2);
+        assertThat(last.getMessage()).isEqualTo("Segunda resposta");
+    }
+
+    @Test
+    void cursorContinuesAcrossRepliesWithSameCreatedAt() {
+        Topic topic = createTopic();
+        LocalDateTime sameInstant = Topic.now();
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(replyRepository.save(new Reply("Resposta " + i, topic, author, sameInstant)).getId());
+        }
+
+        List<Long> listed = new ArrayList<>();
+        TopicCursor cursor = null;
+        Slice<Reply> page;
+        do {
+            page = replyService.getReplies(topic.getId(), cursor, PageRequest.of(0, 2));
+            page.forEach(reply -> listed.add(reply.getId()));
+            Reply last = page.getContent().get(page.getNumberOfElements() - 1);
+            cursor = new TopicCursor(last.getCreatedAt(), last.getId());
+        } while (page.hasNext());
+
+        assertThat(listed).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void threadWithoutRepliesUsesSingleStatement() {
+        Topic topic = createTopic();
+
+        TopicThreadResponse thread = threadCountingStatements(topic.getId());
+
+        assertThat(thread.getTopic().getId()).isEqualTo(topic.getId());
+        assertThat(thread.getReplies()).isEmpty();
+        assertThat(thread.getNextCursor()).isNull();
+    }
+
+    @Test
+    void threadWithOneReplyUsesSingleStatement() {
+        Topic topic = createTopic();
+        Reply reply = replyService.createReply(topic.getId(), "Única resposta", author.getUsername());
+
+        TopicThreadResponse thread = threadCountingStatements(topic.getId());
+
+        assertThat(thread.getTopic().getReplyCount()).isEqualTo(1);
+        assertThat(thread.getReplies()).extracting("id").containsExactly(reply.getId());
+        assertThat(thread.getNextCursor()).isNull();
+    }
+
+    @Test
+    void threadWithMoreRepliesThanLimitUsesSingleStatement() {
+        Topic topic = createTopic();
+        List<Long> replyIds = new ArrayList<>();
+        for (int i = 0; i < THREAD_REPLIES + 2; i++) {
+            replyIds.add(replyService.createReply(topic.getId(), "Resposta " + i, author.getUsername()).getId());
+        }
+
+        TopicThreadResponse thread = threadCountingStatements(topic.getId());
+
+        assertThat(thread.getTopic().getReplyCount()).isEqualTo(THREAD_REPLIES + 2);
+        assertThat(thread.getReplies()).extracting("id")
+                .containsExactlyElementsOf(replyIds.subList(0, THREAD_REPLIES));
+        assertThat(TopicCursor.decode(thread.getNextCursor()).getId()).isEqualTo(replyIds.get(THREAD_REPLIES - 1));
+    }
+
+    @Test
+    void threadOfMissingTopicIsEmpty() {
+        assertThat(replyService.getThread(Long.MAX_VALUE, THREAD_REPLIES)).isEmpty();
+    }
+
+    private Topic createTopic() {
+        return topicService.createTopic("Tópico com respostas", "Mensagem do tópico", courseName, author.getUsername());
+    }
+
+    // Serviço com o JdbcTemplate sobre conexões que contam os comandos preparados e com os repositórios
+    // simulados: uma consulta via JPA também apareceria (como interação com os mocks)
+    private TopicThreadResponse threadCountingStatements(Long topicId) {
+        AtomicInteger statements = new AtomicInteger();
+        ReplyRepository replies = mock(ReplyRepository.class);
+        TopicRepository topics = mock(TopicRepository.class);
+        ReplyService service = new ReplyService(replies, topics, mock(UserService.class),
+                mock(TopicVersionRegistry.class), mock(TopicTrendingIndex.class), transactionTemplate,
+                new JdbcTemplate(countingDataSource(statements)));
+
+        TopicThreadResponse thread = service.getThread(topicId, THREAD_REPLIES).orElseThrow();
+
+        assertThat(statements.get()).as("comandos executados na thread").isEqualTo(1);
+        verifyNoInteractions(replies, topics);
+        return thread;
+    }
+
+    private DataSource countingDataSource(AtomicInteger statements) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection connection = super.getConnection();
+                return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                            if (method.getName().startsWith("prepare") || method.getName().equals("createStatement")) {
+                                statements.incrementAndGet();
+                            }
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getTargetException();
+                            }
+                        });
+            }
+        };
+    }
+}
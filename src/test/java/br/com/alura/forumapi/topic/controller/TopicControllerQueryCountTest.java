@@ -0,0 +1,162 @@
+package br.com.alura.forumapi.topic.controller;
+
+import br.com.alura.forumapi.topic.entity.Topic;
+import br.com.alura.forumapi.topic.service.TopicService;
+import br.com.alura.forumapi.user.entity.User;
+import br.com.alura.forumapi.user.repository.UserRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que as listagens de tópicos não disparam uma consulta por linha (N+1)
+ * para carregar autor e curso, e que leituras condicionais (If-None-Match) não acessam o banco.
+ * Conta os comandos pela métrica jdbc.statements.per.request, medida na thread da requisição: jobs
+ * agendados rodando ao mesmo tempo não entram na conta, como entrariam nas estatísticas do Hibernate.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TopicControllerQueryCountTest {
+
+    private static final String OWNER = "querycount";
+    private static final int TOPICS = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TopicService topicService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String courseName;
+    private String searchTerm;
+    private Long topicId;
+
+    @BeforeEach
+    void seedTopics() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        courseName = "Curso-" + suffix;
+        searchTerm = "termo" + suffix;
+
+        // Autores e cursos distintos por tópico: um N+1 apareceria como uma consulta por linha
+        createUser(OWNER);
+        for (int i = 0; i < TOPICS; i++) {
+            String author = createUser("qc" + suffix + i).getUsername();
+            Topic topic = topicService.createTopic("Tópico " + i, "Mensagem " + searchTerm, courseName, author);
+            topicService.createTopic("Meu tópico " + i, "Mensagem do dono", courseName + "-" + i, OWNER);
+            topicId = topic.getId();
+        }
+    }
+
+    @Test
+    @WithMockUser(username = OWNER)
+    void listTopicsByCourseUsesSelectAndCountOnly() throws Exception {
+        assertStatementsAtMost(2, "/topics?size=" + TOPICS + "&courseName=" + courseName);
+    }
+
+    @Test
+    @WithMockUser(username = OWNER)
+    void listTopicsByCursorUsesSingleSelect() throws Exception {
+        assertStatementsAtMost(1, "/topics?cursor=true&size=" + TOPICS + "&courseName=" + courseName);
+    }
+
+    @Test
+    @WithMockUser(username = OWNER)
+    void searchTopicsUsesSingleSelect() throws Exception {
+        assertStatementsAtMost(1, "/topics?size=" + TOPICS + "&search=" + searchTerm);
+    }
+
+    @Test
+    @WithMockUser(username = OWNER)
+    void topicsByCourseUseAtMostSelectAndCount() throws Exception {
+        assertStatementsAtMost(2, "/topics/course/" + courseName);
+    }
+
+    @Test
+    @WithMockUser(username = OWNER)
+    void myTopicsUseAtMostSelectAndCount() throws Exception {
+        assertStatementsAtMost(2, "/topics/my-topics");
+    }
+
+    @Test
+    @WithMockUser(username = OWNER)
+    void topicByIdUsesSingleSelect() throws Exception {
+        assertStatementsAtMost(1, "/topics/" + topicId);
+    }
+
+    @Test
+    @WithMockUser(username = OWNER)
+    void unchangedTopicIsNotModifiedWithoutQueries() throws Exception {
+        assertNotModifiedWithoutQueries("/topics/" + topicId);
+    }
+
+    @Test
+    @WithMockUser(username = OWNER)
+    void unchangedTopicPageIsNotModifiedWithoutQueries() throws Exception {
+        assertNotModifiedWithoutQueries("/topics?size=" + TOPICS + "&courseName=" + courseName);
+    }
+
+    private void assertNotModifiedWithoutQueries(String url) throws Exception {
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+
+        double before = recordedStatements();
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        assertThat(recordedStatements() - before)
+                .as("consultas executadas em GET %s com If-None-Match", url)
+                .isZero();
+    }
+
+    private void assertStatementsAtMost(long expected, String url) throws Exception {
+        double before = recordedStatements();
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true));
+
+        assertThat(recordedStatements() - before)
+                .as("consultas executadas em GET %s", url)
+                .isLessThanOrEqualTo(expected);
+    }
+
+    // Soma de todas as rotas: o teste faz uma requisição por vez
+    private double recordedStatements() {
+        return meterRegistry.find("jdbc.statements.per.request").summaries().stream()
+                .mapToDouble(DistributionSummary::totalAmount)
+                .sum();
+    }
+
+    private User createUser(String username) {
+        return userRepository.findByUsername(username).orElseGet(() -> {
+            User user = new User();
+            user.setUsername(username);
+            user.setEmail(username + "@forum.test");
+            user.setPassword("{noop}senha");
+            return userRepository.save(user);
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.alura.forumapi.topic.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que a codificação varint das posting lists preserva IDs e frequências,
+ * inclusive IDs acima de Integer.MAX_VALUE, inserções fora de ordem e remoções.
+ */
+class PostingListTest {
+
+    @Test
+    void roundTripsDeltasOfEveryVarintLength() {
+        PostingList postingList = new PostingList();
+        long[] docIds = {1L, 127L, 128L, 16_384L, Integer.MAX_VALUE, Integer.MAX_VALUE + 1L, Long.MAX_VALUE / 2};
+        for (int i = 0; i < docIds.length; i++) {
+            postingList.add(docIds[i], i + 1);
+        }
+
+        assertThat(postingList.size()).isEqualTo(docIds.length);
+        assertThat(entries(postingList)).containsExactly(
+                "1:1", "127:2", "128:3", "16384:4", "2147483647:5", "2147483648:6", (Long.MAX_VALUE / 2) + ":7");
+    }
+
+    @Test
+    void keepsDocIdsOrderedWhenAddedOutOfOrderAndReplacesExistingOnes() {
+        PostingList postingList = new PostingList();
+        postingList.add(10L, 1);
+        postingList.add(30L, 1);
+        postingList.add(20L, 2);
+        postingList.add(5L, 3);
+        postingList.add(30L, 7);
+
+        assertThat(postingList.size()).isEqualTo(4);
+        assertThat(entries(postingList)).containsExactly("5:3", "10:1", "20:2", "30:7");
+    }
+
+    @Test
+    void removesOnlyTheGivenDocId() {
+        PostingList postingList = new PostingList();
+        postingList.add(1L, 1);
+        postingList.add(3_000_000_000L, 2);
+        postingList.add(3_000_000_001L, 3);
+
+        postingList.remove(3_000_000_000L);
+        postingList.remove(42L);
+
+        assertThat(postingList.size()).isEqualTo(2);
+        assertThat(entries(postingList)).containsExactly("1:1", "3000000001:3");
+
+        postingList.remove(1L);
+        postingList.remove(3_000_000_001L);
+        assertThat(postingList.isEmpty()).isTrue();
+        assertThat(entries(postingList)).isEmpty();
+    }
+
+    private static List<String> entries(PostingList postingList) {
+        List<String> entries = new ArrayList<>();
+        postingList.forEach((docId, termFrequency) -> entries.add(docId + ":" + termFrequency));
+        return entries;
+    }
+}
@@ -0,0 +1,118 @@
+package br.com.alura.forumapi.topic.search;
+
+import br.com.alura.forumapi.topic.repository.TopicRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Semântica da busca em memória: todos os termos (AND), prefixo no último termo (completações
+ * mais frequentes primeiro), consultas só com stopwords, remoção, ordem por (createdAt, id) e reconstrução concorrente com remoções.
+ */
+class TopicSearchIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 10, 12, 0);
+
+    private TopicRepository topicRepository;
+    private TopicSearchIndex index;
+
+    @BeforeEach
+    void createIndex() {
+        topicRepository = mock(TopicRepository.class);
+        index = new TopicSearchIndex(topicRepository);
+    }
+
+    @Test
+    void requiresEveryTermAndMatchesTheLastOneByPrefix() {
+        index.index(document(1L, "Dúvida sobre Spring", "Como configurar o Spring Security?", "Spring", NOW));
+        index.index(document(2L, "Spring Data", "Consultas derivadas no repositório", "Spring", NOW));
+        index.index(document(3L, "Segurança em Java", "Configuração de TLS", "Java", NOW));
+
+        assertThat(index.search("spring security", null)).containsExactly(1L);
+        assertThat(index.search("spring secur", null)).containsExactly(1L);
+        assertThat(index.search("configura", null)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.search("spring kotlin", null)).isEmpty();
+        assertThat(index.search("duvida", "Java")).isEmpty();
+    }
+
+    @Test
+    void removedAndReindexedTopicsStopMatchingOldTerms() {
+        index.index(document(1L, "Java streams", "Coletores", "Java", NOW));
+        index.index(document(Integer.MAX_VALUE + 10L, "Java records", "Imutabilidade", "Java", NOW));
+
+        index.remove(1L);
+        index.index(document(Integer.MAX_VALUE + 10L, "Kotlin data classes", "Imutabilidade", "Kotlin", NOW));
+
+        assertThat(index.search("java", null)).isEmpty();
+        assertThat(index.search("kotlin", null)).containsExactly(Integer.MAX_VALUE + 10L);
+    }
+
+    @Test
+    void shortPrefixExpandsToMostFrequentTermsFirst() {
+        // Mais completações raras do que o limite, todas antes de "python" em ordem alfabética
+        for (long id = 1; id <= 100; id++) {
+            index.index(document(id, "pa" + id, "raro", "Java", NOW));
+        }
+        index.index(document(200L, "Python", "comum", "Python", NOW));
+        index.index(document(201L, "Python", "comum", "Python", NOW));
+
+        assertThat(index.search("p", null)).contains(200L, 201L);
+        assertThat(index.search("comum p", null)).containsExactlyInAnyOrder(200L, 201L);
+        assertThat(index.search("pa7", null)).containsExactlyInAnyOrder(7L, 70L, 71L, 72L, 73L, 74L,
+                75L, 76L, 77L, 78L, 79L);
+    }
+
+    @Test
+    void onlyStopwordQueriesAreLeftToTheDatabase() {
+        when(topicRepository.findSearchDocumentsAfter(anyLong(), any(Pageable.class))).thenReturn(List.of());
+        assertThat(index.canSearch("java")).isFalse();
+
+        index.rebuild();
+
+        assertThat(index.canSearch("java")).isTrue();
+        assertThat(index.canSearch("de para")).isFalse();
+        assertThat(index.canSearch("?!")).isFalse();
+    }
+
+    @Test
+    void ordersByCreatedAtAndIdIndependentlyOfIdOrder() {
+        // ID maior com createdAt antigo, como numa importação
+        index.index(document(1L, "Java", "a", "Java", NOW.minusDays(1)));
+        index.index(document(2L, "Java", "b", "Java", NOW));
+        index.index(document(3L, "Java", "c", "Java", NOW));
+        index.index(document(500L, "Java", "d", "Java", NOW.minusDays(30)));
+
+        assertThat(index.searchByRecency("java", null, null, null, 10)).containsExactly(3L, 2L, 1L, 500L);
+        assertThat(index.searchByRecency("java", null, null, null, 2)).containsExactly(3L, 2L);
+        assertThat(index.searchByRecency("java", null, NOW, 2L, 10)).containsExactly(1L, 500L);
+    }
+
+    @Test
+    void rebuildDoesNotResurrectTopicsRemovedAfterTheBatchWasRead() {
+        when(topicRepository.findSearchDocumentsAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            // A remoção chega depois da leitura do lote e antes de ele ser indexado
+            index.remove(2L);
+            return List.of(document(1L, "Java", "a", "Java", NOW), document(2L, "Java", "b", "Java", NOW));
+        });
+
+        assertThat(index.isReady()).isFalse();
+        index.rebuild();
+
+        assertThat(index.search("java", null)).containsExactly(1L);
+        assertThat(index.isReady()).isTrue();
+    }
+
+    private static TopicSearchDocument document(Long id, String title, String message,
+                                                String courseName, LocalDateTime createdAt) {
+        return new TopicSearchDocument(id, title, message, courseName, createdAt);
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.alura.forumapi.topic.service;
+
+import br.com.alura.forumapi.course.entity.Course;
+import br.com.alura.forumapi.course.service.CourseService;
+import br.com.alura.forumapi.topic.entity.Topic;
+import br.com.alura.forumapi.topic.repository.TopicRepository;
+import br.com.alura.forumapi.user.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Garante que cada tópico da fila de ingestão é gravado uma única vez: o chamador grava o que a thread
+ * de escrita não pegou no prazo, e aguarda sem erro um lote já pego que demora mais que o prazo.
+ */
+class TopicIngestionQueueTest {
+
+    private static final long AWAIT_TIMEOUT_MS = 50;
+
+    private final TopicRepository topicRepository = mock(TopicRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch writerBusy = new CountDownLatch(1);
+    private final CountDownLatch releaseWriter = new CountDownLatch(1);
+    private final List<Topic> writtenByQueue = new CopyOnWriteArrayList<>();
+
+    private final TopicIngestionQueue queue;
+
+    TopicIngestionQueueTest() {
+        // Cada lote fica preso até o teste liberar a thread de escrita
+        when(topicRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Topic> batch = invocation.getArgument(0);
+            writerBusy.countDown();
+            releaseWriter.await();
+            writtenByQueue.addAll(batch);
+            return batch;
+        });
+        queue = new TopicIngestionQueue(topicRepository, mock(CourseService.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry,
+                true, 100, 50, AWAIT_TIMEOUT_MS);
+    }
+
+    @AfterEach
+    void stopWriter() throws InterruptedException {
+        releaseWriter.countDown();
+        queue.shutdown();
+    }
+
+    @Test
+    void callerSavesTopicTheWriterDidNotClaimInTime() throws Exception {
+        Topic first = topic("primeiro");
+        CompletableFuture<Topic> firstResult = CompletableFuture.supplyAsync(
+                () -> queue.save(first, () -> { throw new AssertionError("já pego pela thread de escrita"); }));
+        assertThat(writerBusy.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // A thread de escrita está presa no primeiro lote: o segundo tópico fica na fila além do prazo
+        Topic second = topic("segundo");
+        AtomicInteger synchronousSaves = new AtomicInteger();
+        Topic saved = queue.save(second, () -> {
+            synchronousSaves.incrementAndGet();
+            return second;
+        });
+
+        assertThat(saved).isSameAs(second);
+        assertThat(synchronousSaves).hasValue(1);
+        assertThat(meterRegistry.counter("topics.ingestion.fallback").count()).isEqualTo(1);
+
+        // Liberada, a thread de escrita grava o primeiro e descarta o segundo, já reivindicado pelo chamador
+        releaseWriter.countDown();
+        assertThat(firstResult.get(5, TimeUnit.SECONDS)).isSameAs(first);
+        queue.shutdown();
+        assertThat(writtenByQueue).containsExactly(first);
+    }
+
+    @Test
+    void claimedBatchIsAwaitedPastTheTimeout() throws Exception {
+        Topic topic = topic("lento");
+        CompletableFuture<Topic> result = CompletableFuture.supplyAsync(
+                () -> queue.save(topic, () -> { throw new AssertionError("já pego pela thread de escrita"); }));
+        assertThat(writerBusy.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // O lote demora bem mais que os dois prazos: o chamador continua esperando o commit
+        Thread.sleep(AWAIT_TIMEOUT_MS * 4);
+        assertThat(result).isNotDone();
+
+        releaseWriter.countDown();
+        assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(topic);
+        assertThat(meterRegistry.counter("topics.ingestion.fallback").count()).isZero();
+    }
+
+    private static Topic topic(String title) {
+        User author = new User();
+        author.setId(1L);
+        Course course = new Course();
+        course.setId(1L);
+        course.setName("Java");
+
+        Topic topic = new Topic(title, "Mensagem de " + title, author, course);
+        topic.setCreatedAt(Topic.now());
+        return topic;
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.alura.forumapi.topic.service;
+
+import br.com.alura.forumapi.course.entity.Course;
+import br.com.alura.forumapi.topic.dto.TopicTrendingResponse;
+import br.com.alura.forumapi.topic.entity.Topic;
+import br.com.alura.forumapi.topic.repository.TopicRepository;
+import br.com.alura.forumapi.user.entity.User;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Garante que o recálculo do ranking só consulta a tabela de tópicos para as entradas que
+ * sobrevivem ao corte por capacidade, e que um tópico apagado não volta por uma leitura atrasada.
+ */
+class TopicTrendingIndexTest {
+
+    private static final int CAPACITY = 2;
+
+    private final TopicRepository topicRepository = mock(TopicRepository.class);
+    private final TopicTrendingIndex index = new TopicTrendingIndex(topicRepository, 360, 10, CAPACITY);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void loadsOnlyEntriesThatSurviveTheCapacityCut() {
+        when(topicRepository.findByIdIn(anyCollection())).thenAnswer(invocation ->
+                ((Collection<Long>) invocation.getArgument(0)).stream().map(TopicTrendingIndexTest::topic).toList());
+
+        // Leituras respondidas com 304 (sem dados): o tópico 1 é o mais lido, o 5 o menos
+        for (long topicId = 1; topicId <= 5; topicId++) {
+            for (int views = 0; views < 10 - topicId; views++) {
+                index.topicViewed(topicId);
+            }
+        }
+
+        index.refresh();
+
+        ArgumentCaptor<Collection<Long>> loaded = ArgumentCaptor.forClass(Collection.class);
+        verify(topicRepository).findByIdIn(loaded.capture());
+        assertThat(loaded.getValue()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.trending(null, 10)).extracting(item -> item.getTopic().getId()).containsExactly(1L, 2L);
+        assertThat(index.trending("java", 10)).hasSize(2);
+    }
+
+    @Test
+    void viewAfterDeleteDoesNotBringTopicBack() {
+        index.topicCreated(topic(1L));
+        index.topicDeleted(1L);
+        index.topicViewed(topic(1L));
+
+        index.refresh();
+
+        List<TopicTrendingResponse> trending = index.trending(null, 10);
+        assertThat(trending).isEmpty();
+    }
+
+    private static Topic topic(Long id) {
+        User author = new User();
+        author.setUsername("autor");
+        Course course = new Course();
+        course.setName("Java");
+        Topic topic = new Topic("Tópico " + id, "Mensagem", author, course);
+        topic.setId(id);
+        return topic;
+    }
+}
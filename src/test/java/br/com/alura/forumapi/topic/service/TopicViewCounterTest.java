@@ -0,0 +1,109 @@
+package br.com.alura.forumapi.topic.service;
+
+import br.com.alura.forumapi.topic.repository.TopicRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Garante que nenhuma visualização se perde quando o flush roda junto com as leituras,
+ * inclusive com leituras que pegaram a geração de acumuladores pouco antes da troca feita pelo flush.
+ */
+class TopicViewCounterTest {
+
+    private static final int THREADS = 8;
+    private static final int VIEWS_PER_THREAD = 50_000;
+    private static final int TOPICS = 40;
+
+    private final Map<Long, Long> written = new ConcurrentHashMap<>();
+
+    @Test
+    void concurrentFlushesKeepEveryView() throws Exception {
+        TopicViewCounter counter = new TopicViewCounter(mock(TopicRepository.class), recordingJdbcTemplate(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 10);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean reading = new AtomicBoolean(true);
+        try {
+            Future<?> flusher = executor.submit(() -> {
+                start.await();
+                while (reading.get()) {
+                    counter.flush();
+                }
+                return null;
+            });
+            Future<?>[] readers = new Future<?>[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                readers[t] = executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < VIEWS_PER_THREAD; i++) {
+                        // Rajadas por tópico: entre uma e outra o acumulador fica ocioso e sai do mapa
+                        counter.recordView((long) ((i / 1000 + thread) % TOPICS));
+                    }
+                    return null;
+                });
+            }
+
+            start.countDown();
+            for (Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+            reading.set(false);
+            flusher.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        counter.flush();
+
+        long total = written.values().stream().mapToLong(Long::longValue).sum();
+        assertThat(total).isEqualTo((long) THREADS * VIEWS_PER_THREAD);
+    }
+
+    @SuppressWarnings("unchecked")
+    private JdbcTemplate recordingJdbcTemplate() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenAnswer(invocation -> {
+            Collection<Object> batch = invocation.getArgument(1);
+            ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+            for (Object item : batch) {
+                long[] parameters = new long[3];
+                PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                            if (method.getName().equals("setLong")) {
+                                parameters[(int) args[0]] = (long) args[1];
+                            }
+                            return null;
+                        });
+                setter.setValues(statement, item);
+                written.merge(parameters[2], parameters[1], Long::sum);
+            }
+            return new int[0][];
+        });
+        return jdbcTemplate;
+    }
+}
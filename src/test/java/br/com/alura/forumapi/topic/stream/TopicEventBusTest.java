@@ -0,0 +1,94 @@
+package br.com.alura.forumapi.topic.stream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Garante que o feed SSE (GET /topics/stream) entrega os eventos do curso pedido sem diferença
+ * de caixa e que a inscrição é removida quando a conexão termina.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class TopicEventBusTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TopicEventBus topicEventBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void subscriberReceivesEventsOfCourseRegardlessOfCase() throws Exception {
+        String courseName = "Curso-" + UUID.randomUUID().toString().substring(0, 8);
+        MvcResult sameCourse = subscribe("  " + courseName.toUpperCase() + " ");
+        MvcResult otherCourse = subscribe(courseName + "-outro");
+        MvcResult allCourses = subscribe("");
+
+        topicEventBus.publish(TopicEvent.deleted(4242L, courseName));
+
+        awaitContent(sameCourse, "\"topicId\":4242");
+        awaitContent(allCourses, "\"topicId\":4242");
+        assertThat(sameCourse.getResponse().getContentAsString()).contains("event:deleted");
+        assertThat(otherCourse.getResponse().getContentAsString()).doesNotContain("4242");
+
+        close(sameCourse);
+        close(otherCourse);
+        close(allCourses);
+    }
+
+    @Test
+    void closedConnectionIsUnsubscribed() throws Exception {
+        String courseName = "Curso-" + UUID.randomUUID().toString().substring(0, 8);
+        double before = openSubscribers();
+
+        MvcResult result = subscribe(courseName);
+        assertThat(openSubscribers()).isEqualTo(before + 1);
+
+        close(result);
+        assertThat(openSubscribers()).isEqualTo(before);
+
+        // Sem inscritos no curso: o evento não é entregue a ninguém
+        topicEventBus.publish(TopicEvent.deleted(4343L, courseName));
+        assertThat(result.getResponse().getContentAsString()).doesNotContain("4343");
+    }
+
+    private MvcResult subscribe(String course) throws Exception {
+        return mockMvc.perform(get("/topics/stream").param("course", course))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    // Encerra a requisição assíncrona como o Tomcat faria quando o cliente desconecta
+    private void close(MvcResult result) {
+        result.getRequest().getAsyncContext().complete();
+    }
+
+    private double openSubscribers() {
+        return meterRegistry.get("topics.stream.subscribers").gauge().value();
+    }
+
+    // Os envios rodam em virtual threads: espera a escrita chegar à resposta
+    private void awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!result.getResponse().getContentAsString().contains(expected)) {
+            assertThat(System.currentTimeMillis()).as("evento não entregue: " + expected).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
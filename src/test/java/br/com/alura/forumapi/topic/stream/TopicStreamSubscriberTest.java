@@ -0,0 +1,77 @@
+package br.com.alura.forumapi.topic.stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que o buffer de um inscrito lento descarta o evento mais antigo e que uma
+ * inscrição encerrada não envia mais nada.
+ */
+class TopicStreamSubscriberTest {
+
+    private final Queue<Runnable> pendingSends = new ArrayDeque<>();
+    private final RecordingEmitter emitter = new RecordingEmitter();
+    private final AtomicInteger dropped = new AtomicInteger();
+
+    private final TopicStreamSubscriber subscriber =
+            new TopicStreamSubscriber(emitter, "java", 2, pendingSends::add, dropped::incrementAndGet);
+
+    @Test
+    void fullBufferDropsOldestEvent() {
+        Set<DataWithMediaType> first = frame("1");
+        Set<DataWithMediaType> second = frame("2");
+        Set<DataWithMediaType> third = frame("3");
+
+        // Nenhum envio roda até o executor ser liberado: simula um cliente lento
+        subscriber.offer(first);
+        subscriber.offer(second);
+        subscriber.offer(third);
+
+        assertThat(dropped.get()).isEqualTo(1);
+        assertThat(pendingSends).hasSize(1);
+        runPendingSends();
+        assertThat(emitter.sent).containsExactly(second, third);
+    }
+
+    @Test
+    void closedSubscriberSendsNothing() {
+        subscriber.offer(frame("1"));
+        subscriber.close();
+        subscriber.offer(frame("2"));
+
+        runPendingSends();
+        assertThat(emitter.sent).isEmpty();
+        assertThat(dropped.get()).isZero();
+    }
+
+    private void runPendingSends() {
+        Runnable send;
+        while ((send = pendingSends.poll()) != null) {
+            send.run();
+        }
+    }
+
+    private static Set<DataWithMediaType> frame(String id) {
+        return SseEmitter.event().id(id).data(id).build();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<Set<DataWithMediaType>> sent = new ArrayList<>();
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) {
+            sent.add(items);
+        }
+    }
+}